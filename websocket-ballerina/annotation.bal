@@ -26,10 +26,70 @@
 #                          in the `websocket:Listener` which is applicable only for the initial HTTP upgrade request.
 # + maxFrameSize - The maximum payload size of a WebSocket frame in bytes.
 #                  If this is not set or is negative or zero, the default frame size which is 65536 will be used.
+# + maxMessageSize - The maximum size of a message in bytes, aggregated across its fragments. The connection is
+#                    closed with the status code 1009 as soon as a message exceeds it.
+#                    If this is not set or is negative or zero, the message size is not limited.
+# + spillThreshold - The size in bytes above which a binary message is aggregated in a temporary file instead of
+#                    the memory. This applies only when the data parameter of `onBinaryMessage` accepts a
+#                    `websocket:SpilledBinaryMessage`, which is passed in place of the `byte[]` for such messages.
+#                    If this is not set or is negative or zero, binary messages are always aggregated in the memory.
+# + deliverFragments - Dispatches each fragment of a text or binary message to `onTextMessage` or `onBinaryMessage`
+#                      as it arrives instead of aggregating the complete message. A `boolean` parameter of the
+#                      function is set to `true` for the final fragment. The next frame is read only after the
+#                      function returns, so a slow service applies backpressure on the sender. The `maxMessageSize`
+#                      and `spillThreshold` do not apply to services which receive fragments.
+# + maxBatchSize - The maximum number of messages passed in a single call to `onTextMessages` or `onBinaryMessages`
+#                  of the service. If this is not set or is negative or zero, the default batch size which is 64
+#                  will be used.
+# + batchLinger - The time (in seconds) a batch which is not full waits for more messages before it is dispatched.
+#                 The default value is zero, which dispatches the messages which have already been received.
+# + dispatchWindow - The maximum number of messages of a connection dispatched to `onTextMessage` or
+#                    `onBinaryMessage` before the earlier ones have completed. Frames are read ahead while the window
+#                    has room. If this is not set or is less than two, a message is dispatched only after the
+#                    previous one has been handled.
+# + orderedDispatch - Whether the messages returned by the remote functions are sent in the order the messages of
+#                     the dispatch window arrived. If `false`, they are sent as soon as each function returns.
+# + maxUnflushedWrites - Consolidates the flushes of the frames written to a connection. When this is positive, the
+#                        frames written while a message is being read or within the same event loop turn are flushed
+#                        together, and at the latest after this many writes. If this is not set or is negative or
+#                        zero, each frame is flushed as it is written.
+# + writeBufferHighWaterMark - The number of bytes buffered for writing after which the connection is no longer
+#                              writable. If this is not set or is negative or zero, the default which is 65536 will
+#                              be used.
+# + writeBufferLowWaterMark - The number of bytes buffered for writing below which a connection which is no longer
+#                             writable becomes writable again. If this is not set or is negative or zero, half of
+#                             the high water mark will be used.
+# + waitUntilWritable - Completes the write actions of a connection which is no longer writable only once it becomes
+#                       writable again, so that a fast producer is held back by a slow peer instead of buffering
+#                       the messages in the memory.
+# + maxQueuedWrites - The maximum number of messages of a connection queued with `queueTextMessage` or
+#                     `queueBinaryMessage` which may be in flight at a time. If this is not set or is negative or
+#                     zero, the default which is 1024 will be used.
+# + outboundDataWindow - Schedules the outbound frames of a connection so that pings and pongs are sent after at most
+#                        this many bytes of data frames already written, instead of after all of them, and messages
+#                        written as urgent are sent ahead of the other messages which have not started yet. If this
+#                        is not set or is negative or zero, the frames are sent in the order they are written.
+# + completeOnEventLoop - Completes a remote function on the event loop of its connection, so that the message it
+#                         returns is written and the next frame is requested in a single task instead of each being
+#                         handed over to the event loop from the thread the function ran on.
 public type WSServiceConfig record {|
     string[] subProtocols = [];
     decimal idleTimeout = 0;
     int maxFrameSize = 65536;
+    int maxMessageSize = 0;
+    int spillThreshold = 0;
+    boolean deliverFragments = false;
+    int maxBatchSize = 64;
+    decimal batchLinger = 0;
+    int dispatchWindow = 1;
+    boolean orderedDispatch = true;
+    int maxUnflushedWrites = 0;
+    int writeBufferHighWaterMark = 0;
+    int writeBufferLowWaterMark = 0;
+    boolean waitUntilWritable = false;
+    int maxQueuedWrites = 1024;
+    int outboundDataWindow = 0;
+    boolean completeOnEventLoop = false;
 |};
 
 # The annotation which is used to configure a WebSocket service.
@@ -16,10 +16,21 @@
 
 import ballerina/jballerina.java;
 
+# The number of event loops shared by the WebSocket clients. Every client which does not use isolated event loops
+# is served by this one group, however many clients are created. If this is zero or negative, twice the number of
+# available processors will be used. The shared factory of the transport also creates a server boss group and a
+# server worker group of one event loop each. The clients never use them, so they do not start a thread.
+configurable int clientEventLoopThreads = 0;
+
 function init() {
     setModule();
+    setClientEventLoopThreads(clientEventLoopThreads);
 }
 
 function setModule() = @java:Method {
     'class: "org.ballerinalang.net.websocket.ModuleUtils"
 } external;
+
+function setClientEventLoopThreads(int threads) = @java:Method {
+    'class: "org.ballerinalang.net.websocket.client.ClientConnectorFactory"
+} external;
@@ -88,6 +88,28 @@ public class Listener {
         return self.initEndpoint();
     }
 
+    # Writes a text message to each connection of this listener which has joined the given group. The message is
+    # encoded and split into frames once and the frames are shared by all the members of the group. The function
+    # returns once the message has been handed to every member without waiting for it to be sent to slow peers.
+    #
+    # + group - The name of the group
+    # + data - Data to be sent
+    # + return - The number of members the message was handed to and the failures of the rest
+    public isolated function publishTextMessage(string group, string data) returns BroadcastResult {
+        return toBroadcastResult(externPublishTextMessage(self, group, data));
+    }
+
+    # Writes binary data to each connection of this listener which has joined the given group. The data is split
+    # into frames once and the frames are shared by all the members of the group. The function returns once the data
+    # has been handed to every member without waiting for it to be sent to slow peers.
+    #
+    # + group - The name of the group
+    # + data - Binary data to be sent
+    # + return - The number of members the data was handed to and the failures of the rest
+    public isolated function publishBinaryMessage(string group, byte[] data) returns BroadcastResult {
+        return toBroadcastResult(externPublishBinaryMessage(self, group, data));
+    }
+
     public isolated function initEndpoint() returns Error? {
         return externInitEndpoint(self);
     }
@@ -149,6 +171,28 @@ isolated function externDetach(Listener listenerObj, Service s) returns error? =
     name: "detach"
 } external;
 
+isolated function externPublishTextMessage(Listener listenerObj, string group, string data)
+returns BroadcastOutcome = @java:Method {
+    'class: "org.ballerinalang.net.websocket.serviceendpoint.Publish",
+    name: "publishTextMessage"
+} external;
+
+isolated function externPublishBinaryMessage(Listener listenerObj, string group, byte[] data)
+returns BroadcastOutcome = @java:Method {
+    'class: "org.ballerinalang.net.websocket.serviceendpoint.Publish",
+    name: "publishBinaryMessage"
+} external;
+
+isolated function externCountConnections(Listener listenerObj) returns int = @java:Method {
+    'class: "org.ballerinalang.net.websocket.serviceendpoint.CountConnections",
+    name: "countConnections"
+} external;
+
+isolated function externCountGroups(Listener listenerObj) returns int = @java:Method {
+    'class: "org.ballerinalang.net.websocket.serviceendpoint.CountConnections",
+    name: "countGroups"
+} external;
+
 # Presents a read-only view of the remote address.
 #
 # + host - The remote host IP
@@ -0,0 +1,80 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+Caller[] broadcastCallers = [];
+BroadcastResult? broadcastOutcome = ();
+
+listener Listener l69 = new(21333);
+
+service /onBroadcast on l69 {
+   resource function get .() returns Service|UpgradeError {
+       return new BroadcastService();
+   }
+}
+
+service class BroadcastService {
+  *Service;
+  remote function onOpen(Caller caller) {
+      broadcastCallers.push(caller);
+  }
+
+  remote function onTextMessage(string data) {
+      broadcastOutcome = broadcastTextMessage(broadcastCallers, data);
+  }
+
+  remote function onBinaryMessage(byte[] data) {
+      broadcastOutcome = broadcastBinaryMessage(broadcastCallers, data);
+  }
+}
+
+// Tests writing the same text and binary messages to all the connections of a service
+@test:Config {}
+public function testBroadcastMessages() returns Error? {
+   Client firstClient = check new("ws://localhost:21333/onBroadcast/", config = {maxFrameSize: 4});
+   Client secondClient = check new("ws://localhost:21333/onBroadcast/");
+   runtime:sleep(1);
+   check firstClient->writeTextMessage("hello all");
+   test:assertEquals(check firstClient->readTextMessage(), "hello all", msg = "Failed testBroadcastMessages");
+   test:assertEquals(check secondClient->readTextMessage(), "hello all", msg = "Failed testBroadcastMessages");
+   runtime:sleep(1);
+   BroadcastResult? outcome = broadcastOutcome;
+   if (outcome is BroadcastResult) {
+       test:assertEquals(outcome.sent, 2, msg = "Failed testBroadcastMessages");
+       test:assertEquals(outcome.failures.length(), 0, msg = "Failed testBroadcastMessages");
+   } else {
+       test:assertFail("Broadcast result not found");
+   }
+
+   byte[] data = [1, 2, 3, 4, 5, 6, 7, 8, 9];
+   check secondClient->writeBinaryMessage(data);
+   test:assertEquals(check firstClient->readBinaryMessage(), data, msg = "Failed testBroadcastMessages");
+   test:assertEquals(check secondClient->readBinaryMessage(), data, msg = "Failed testBroadcastMessages");
+
+   error? result = secondClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+   runtime:sleep(1);
+   check firstClient->writeTextMessage("after close");
+   test:assertEquals(check firstClient->readTextMessage(), "after close", msg = "Failed testBroadcastMessages");
+   runtime:sleep(1);
+   outcome = broadcastOutcome;
+   if (outcome is BroadcastResult) {
+       test:assertEquals(outcome.sent, 1, msg = "Failed testBroadcastMessages");
+       test:assertEquals(outcome.failures.length(), 1, msg = "Failed testBroadcastMessages");
+   }
+   result = firstClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
@@ -0,0 +1,61 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+listener Listener l78 = new(21342);
+
+service /onEventLoops on l78 {
+   resource function get .() returns Service|UpgradeError {
+       return new EventLoopsService();
+   }
+}
+
+service class EventLoopsService {
+  *Service;
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      check caller->writeTextMessage(data);
+  }
+}
+
+// Tests that clients sharing the event loops and a client with isolated event loops are served alongside each other
+@test:Config {}
+public function testSharedAndIsolatedEventLoops() returns Error? {
+   Client first = check new("ws://localhost:21342/onEventLoops/");
+   Client second = check new("ws://localhost:21342/onEventLoops/");
+   Client isolated = check new("ws://localhost:21342/onEventLoops/", config = {isolatedEventLoops: true});
+   check first->writeTextMessage("first");
+   check second->writeTextMessage("second");
+   check isolated->writeTextMessage("isolated");
+   test:assertEquals(check first->readTextMessage(), "first", msg = "Failed testSharedAndIsolatedEventLoops");
+   test:assertEquals(check second->readTextMessage(), "second", msg = "Failed testSharedAndIsolatedEventLoops");
+   test:assertEquals(check isolated->readTextMessage(), "isolated", msg = "Failed testSharedAndIsolatedEventLoops");
+   test:assertTrue(externSharesEventLoops(first, second), msg = "Failed testSharedAndIsolatedEventLoops");
+   test:assertFalse(externSharesEventLoops(first, isolated), msg = "Failed testSharedAndIsolatedEventLoops");
+   error? result = first->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+   result = second->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+   result = isolated->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests that each client with isolated event loops is given event loops of its own
+@test:Config {}
+public function testIsolatedEventLoopsAreNotShared() returns Error? {
+   Client first = check new("ws://localhost:21342/onEventLoops/", config = {isolatedEventLoops: true});
+   Client second = check new("ws://localhost:21342/onEventLoops/", config = {isolatedEventLoops: true});
+   test:assertFalse(externSharesEventLoops(first, second), msg = "Failed testIsolatedEventLoopsAreNotShared");
+   error? result = first->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+   result = second->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
@@ -0,0 +1,88 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+listener Listener l77 = new(21341);
+
+service /onClientPool on l77 {
+   resource function get .() returns Service|UpgradeError {
+       return new ClientPoolService();
+   }
+}
+
+service class ClientPoolService {
+  *Service;
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      check caller->writeTextMessage(data);
+  }
+}
+
+// Tests that a released client is lent again instead of opening a new connection
+@test:Config {}
+public function testClientPoolReuse() returns Error? {
+   ClientPool pool = check new("ws://localhost:21341/onClientPool/", poolConfig = {minIdle: 1, maxIdle: 1});
+   test:assertEquals(pool.getIdleCount(), 1, msg = "Failed testClientPoolReuse");
+   Client first = check pool.borrow();
+   check first->writeTextMessage("pooled");
+   string echoed = check first->readTextMessage();
+   string firstId = first.getConnectionId();
+   check pool.release(first);
+   Client second = check pool.borrow();
+   test:assertEquals(echoed, "pooled", msg = "Failed testClientPoolReuse");
+   test:assertEquals(second.getConnectionId(), firstId, msg = "Failed testClientPoolReuse");
+   test:assertEquals(pool.getActiveCount(), 1, msg = "Failed testClientPoolReuse");
+   check pool.release(second);
+   check pool.close();
+   test:assertEquals(pool.getIdleCount(), 0, msg = "Failed testClientPoolReuse");
+}
+
+// Tests that a closed client is not lent again and that the active clients are limited
+@test:Config {}
+public function testClientPoolDiscardAndLimit() returns Error? {
+   ClientPool pool = check new("ws://localhost:21341/onClientPool/", poolConfig = {maxActive: 1});
+   Client first = check pool.borrow();
+   string firstId = first.getConnectionId();
+   Client|Error limited = pool.borrow();
+   test:assertTrue(limited is Error, msg = "Failed testClientPoolDiscardAndLimit");
+   check first->close(timeout = 0);
+   check pool.release(first);
+   Client second = check pool.borrow();
+   test:assertNotEquals(second.getConnectionId(), firstId, msg = "Failed testClientPoolDiscardAndLimit");
+   check pool.release(second);
+   check pool.close();
+}
+
+// Tests that an idle client is not lent while the maximum number of active clients are lent
+@test:Config {}
+public function testClientPoolLimitWithIdleClients() returns Error? {
+   ClientPool pool = check new("ws://localhost:21341/onClientPool/",
+       poolConfig = {minIdle: 2, maxIdle: 2, maxActive: 1});
+   Client first = check pool.borrow();
+   Client|Error limited = pool.borrow();
+   test:assertTrue(limited is Error, msg = "Failed testClientPoolLimitWithIdleClients");
+   test:assertEquals(pool.getIdleCount(), 1, msg = "Failed testClientPoolLimitWithIdleClients");
+   test:assertEquals(pool.getActiveCount(), 1, msg = "Failed testClientPoolLimitWithIdleClients");
+   check pool.release(first);
+   check pool.close();
+}
+
+// Tests that a pool which would keep more idle clients than it allows is not created
+@test:Config {}
+public function testClientPoolMinIdleGreaterThanMaxIdle() {
+   ClientPool|Error pool = new("ws://localhost:21341/onClientPool/", poolConfig = {minIdle: 2, maxIdle: 1});
+   test:assertTrue(pool is Error, msg = "Failed testClientPoolMinIdleGreaterThanMaxIdle");
+}
@@ -0,0 +1,64 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+const int CONNECTION_CYCLES = 1000;
+
+listener Listener l79 = new(21343);
+
+service /onCycles on l79 {
+   resource function get .() returns Service|UpgradeError {
+       return new CycleService();
+   }
+}
+
+service class CycleService {
+  *Service;
+  remote function onOpen(Caller caller) returns Error? {
+      check caller.joinGroup("cycles");
+      check caller.joinGroup("connection-" + caller.getConnectionId());
+  }
+
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      check caller->writeTextMessage(data);
+  }
+}
+
+// Tests that connecting and closing many times leaves no connections or groups behind in the listener
+@test:Config {}
+public function testConnectionCyclesLeaveNothingBehind() returns Error? {
+   Client wsClient = check new("ws://localhost:21343/onCycles/");
+   check wsClient->writeTextMessage("joined");
+   string echoed = check wsClient->readTextMessage();
+   test:assertEquals(externCountConnections(l79), 1, msg = "Failed testConnectionCyclesLeaveNothingBehind");
+   test:assertEquals(externCountGroups(l79), 2, msg = "Failed testConnectionCyclesLeaveNothingBehind");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+
+   foreach int i in 1 ..< CONNECTION_CYCLES {
+      wsClient = check new("ws://localhost:21343/onCycles/");
+      result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+   }
+   int waits = 0;
+   while ((externCountConnections(l79) > 0 || externCountGroups(l79) > 0) && waits < 100) {
+      runtime:sleep(0.1);
+      waits += 1;
+   }
+   test:assertEquals(externCountConnections(l79), 0, msg = "Failed testConnectionCyclesLeaveNothingBehind");
+   test:assertEquals(externCountGroups(l79), 0, msg = "Failed testConnectionCyclesLeaveNothingBehind");
+}
@@ -0,0 +1,69 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+listener Listener l70 = new(21334);
+
+service /onGroups on l70 {
+   resource function get .() returns Service|UpgradeError {
+       return new GroupService();
+   }
+}
+
+service class GroupService {
+  *Service;
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      if (data.startsWith("join:")) {
+          check caller->writeTextMessage(data);
+          return caller.joinGroup(data.substring(5));
+      } else if (data.startsWith("leave:")) {
+          caller.leaveGroup(data.substring(6));
+          return caller->writeTextMessage(data);
+      }
+  }
+}
+
+// Tests publishing messages to the connections which have joined a group of the listener
+@test:Config {}
+public function testPublishToGroup() returns Error? {
+   Client firstClient = check new("ws://localhost:21334/onGroups/");
+   Client secondClient = check new("ws://localhost:21334/onGroups/");
+   check firstClient->writeTextMessage("join:news");
+   string joined = check firstClient->readTextMessage();
+   check secondClient->writeTextMessage("join:news");
+   joined = check secondClient->readTextMessage();
+   runtime:sleep(1);
+
+   BroadcastResult result = l70.publishTextMessage("news", "headline");
+   test:assertEquals(result.sent, 2, msg = "Failed testPublishToGroup");
+   test:assertEquals(check firstClient->readTextMessage(), "headline", msg = "Failed testPublishToGroup");
+   test:assertEquals(check secondClient->readTextMessage(), "headline", msg = "Failed testPublishToGroup");
+
+   check secondClient->writeTextMessage("leave:news");
+   string left = check secondClient->readTextMessage();
+   result = l70.publishBinaryMessage("news", [1, 2, 3]);
+   test:assertEquals(result.sent, 1, msg = "Failed testPublishToGroup");
+   test:assertEquals(check firstClient->readBinaryMessage(), <byte[]>[1, 2, 3], msg = "Failed testPublishToGroup");
+
+   error? closeResult = firstClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+   runtime:sleep(1);
+   result = l70.publishTextMessage("news", "after close");
+   test:assertEquals(result.sent, 0, msg = "Failed testPublishToGroup");
+   test:assertEquals(result.failures.length(), 0, msg = "Failed testPublishToGroup");
+   closeResult = secondClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
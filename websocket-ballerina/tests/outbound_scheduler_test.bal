@@ -0,0 +1,96 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+listener Listener l74 = new(21338);
+
+@ServiceConfig {
+    maxFrameSize: 512,
+    outboundDataWindow: 1024
+}
+service /onOutboundSchedule on l74 {
+   resource function get .() returns Service|UpgradeError {
+       return new OutboundScheduleService();
+   }
+}
+
+service class OutboundScheduleService {
+  *Service;
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      check caller->writeTextMessage(data, urgent = data.length() < 16);
+  }
+
+  remote function onBinaryMessage(Caller caller, byte[] data) returns Error? {
+      check caller->writeBinaryMessage(data);
+  }
+}
+
+@ServiceConfig {
+    outboundDataWindow: 65536
+}
+service /onOutboundOvertake on l74 {
+   resource function get .() returns Service|UpgradeError {
+       return new OutboundOvertakeService();
+   }
+}
+
+service class OutboundOvertakeService {
+  *Service;
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      byte[] bulk = [];
+      bulk[16777215] = 7;
+      check caller->queueBinaryMessage(bulk);
+      check caller->queueBinaryMessage([1, 2, 3]);
+      check caller->writeTextMessage("urgent", urgent = true);
+  }
+}
+
+// Tests that scheduled frames, including those of urgent messages, still make up whole messages
+@test:Config {}
+public function testOutboundScheduling() returns Error? {
+   Client wsClient = check new("ws://localhost:21338/onOutboundSchedule/", config = {
+       maxFrameSize: 512,
+       outboundDataWindow: 1024
+   });
+   byte[] bulk = [];
+   bulk[8191] = 7;
+   check wsClient->writeBinaryMessage(bulk);
+   check wsClient->writeTextMessage("urgent", urgent = true);
+   byte[] echoedBulk = check wsClient->readBinaryMessage();
+   string echoedUrgent = check wsClient->readTextMessage();
+   test:assertEquals(echoedBulk.length(), 8192, msg = "Failed testOutboundScheduling");
+   test:assertEquals(echoedBulk[8191], 7, msg = "Failed testOutboundScheduling");
+   test:assertEquals(echoedUrgent, "urgent", msg = "Failed testOutboundScheduling");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests that an urgent message written while a large message is still in flight is sent ahead of a message queued
+// before it. The sync client does not read while the server writes, so the large message stays in flight.
+@test:Config {}
+public function testUrgentMessageOvertakesQueuedMessage() returns Error? {
+   Client wsClient = check new("ws://localhost:21338/onOutboundOvertake/");
+   check wsClient->writeTextMessage("start");
+   runtime:sleep(1);
+   byte[] first = check wsClient->readBinaryMessage();
+   test:assertEquals(first.length(), 16777216, msg = "Failed testUrgentMessageOvertakesQueuedMessage");
+   string|Error second = wsClient->readTextMessage();
+   test:assertEquals(second, "urgent", msg = "Failed testUrgentMessageOvertakesQueuedMessage");
+   byte[] third = check wsClient->readBinaryMessage();
+   test:assertEquals(third, <byte[]>[1, 2, 3], msg = "Failed testUrgentMessageOvertakesQueuedMessage");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
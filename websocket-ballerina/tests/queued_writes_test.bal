@@ -0,0 +1,78 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+string[] queuedReceived = [];
+int queuedBinaryLength = 0;
+
+listener Listener l71 = new(21335);
+
+@ServiceConfig {
+    maxQueuedWrites: 16
+}
+service /onQueuedWrites on l71 {
+   resource function get .() returns Service|UpgradeError {
+       return new QueuedWritesService();
+   }
+}
+
+service class QueuedWritesService {
+  *Service;
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      queuedReceived.push(data);
+      check caller->queueTextMessage(data);
+  }
+
+  remote function onBinaryMessage(Caller caller, byte[] data) returns Error? {
+      queuedBinaryLength = data.length();
+      check caller->queueBinaryMessage(data);
+  }
+}
+
+// Tests that queued messages are written in order and echoed back
+@test:Config {}
+public function testQueuedWrites() returns Error? {
+   Client wsClient = check new("ws://localhost:21335/onQueuedWrites/", config = {maxQueuedWrites: 16});
+   check wsClient->queueTextMessage("first");
+   check wsClient->queueTextMessage("second");
+   check wsClient->queueBinaryMessage([1, 2, 3]);
+   string first = check wsClient->readTextMessage();
+   string second = check wsClient->readTextMessage();
+   byte[] binary = check wsClient->readBinaryMessage();
+   runtime:sleep(0.5);
+   test:assertEquals(first, "first", msg = "Failed testQueuedWrites");
+   test:assertEquals(second, "second", msg = "Failed testQueuedWrites");
+   test:assertEquals(binary, <byte[]>[1, 2, 3], msg = "Failed testQueuedWrites");
+   test:assertEquals(queuedReceived, ["first", "second"], msg = "Failed testQueuedWrites");
+   test:assertEquals(queuedBinaryLength, 3, msg = "Failed testQueuedWrites");
+   test:assertEquals(wsClient.drainWriteErrors().length(), 0, msg = "Failed testQueuedWrites");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests that a write queued on a closed connection fails and is reported by drainWriteErrors
+@test:Config {}
+public function testQueuedWriteAfterClose() returns Error? {
+   Client wsClient = check new("ws://localhost:21335/onQueuedWrites/");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+   runtime:sleep(0.5);
+   Error? queued = wsClient->queueTextMessage("late");
+   runtime:sleep(0.5);
+   Error[] errors = wsClient.drainWriteErrors();
+   test:assertTrue(queued is Error || errors.length() == 1, msg = "Failed testQueuedWriteAfterClose");
+   test:assertEquals(wsClient.drainWriteErrors().length(), 0, msg = "Failed testQueuedWriteAfterClose");
+}
@@ -0,0 +1,54 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+int textBatchCount = 0;
+string[] batchedTextMessages = [];
+
+listener Listener l64 = new(21328);
+
+@ServiceConfig {
+   maxBatchSize: 3,
+   batchLinger: 0.5
+}
+service /onTextBatch on l64 {
+   resource function get .() returns Service|UpgradeError {
+       return new BatchService();
+   }
+}
+
+service class BatchService {
+  *Service;
+  remote function onTextMessages(string[] data) {
+      textBatchCount += 1;
+      batchedTextMessages.push(...data);
+  }
+}
+
+// Tests dispatching the received text messages in batches to onTextMessages
+@test:Config {}
+public function testTextMessageBatches() returns Error? {
+   Client wsClient = check new("ws://localhost:21328/onTextBatch/");
+   foreach string message in ["a", "b", "c", "d"] {
+       check wsClient->writeTextMessage(message);
+   }
+   runtime:sleep(3);
+   test:assertEquals(textBatchCount, 2, msg = "Failed testTextMessageBatches");
+   test:assertEquals(batchedTextMessages, ["a", "b", "c", "d"], msg = "Failed testTextMessageBatches");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
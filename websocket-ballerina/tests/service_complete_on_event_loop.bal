@@ -0,0 +1,56 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+import ballerina/test;
+
+listener Listener l80 = new(21344);
+
+@ServiceConfig {
+    completeOnEventLoop: true
+}
+service /onEventLoopCompletion on l80 {
+   resource function get .() returns Service|UpgradeError {
+       return new EventLoopCompletionService();
+   }
+}
+
+service class EventLoopCompletionService {
+  *Service;
+  remote function onTextMessage(string data) returns string {
+      return data;
+  }
+
+  remote function onBinaryMessage(byte[] data) returns byte[] {
+      return data;
+  }
+}
+
+// Tests that messages returned by remote functions completed on the event loop are sent in order
+@test:Config {}
+public function testCompleteOnEventLoop() returns Error? {
+   Client wsClient = check new("ws://localhost:21344/onEventLoopCompletion/");
+   foreach int i in 0 ..< 10 {
+      check wsClient->writeTextMessage("message " + i.toString());
+   }
+   check wsClient->writeBinaryMessage([1, 2, 3]);
+   foreach int i in 0 ..< 10 {
+      test:assertEquals(check wsClient->readTextMessage(), "message " + i.toString(),
+          msg = "Failed testCompleteOnEventLoop");
+   }
+   test:assertEquals(check wsClient->readBinaryMessage(), <byte[]>[1, 2, 3], msg = "Failed testCompleteOnEventLoop");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
@@ -0,0 +1,54 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+int receivedFragments = 0;
+string fragmentedTextData = "";
+
+listener Listener l63 = new(21327);
+
+@ServiceConfig {
+   deliverFragments: true
+}
+service /onTextFragments on l63 {
+   resource function get .() returns Service|UpgradeError {
+       return new FragmentService();
+   }
+}
+
+service class FragmentService {
+  *Service;
+  remote function onTextMessage(string data, boolean finalFragment) {
+      receivedFragments += 1;
+      fragmentedTextData += data;
+      if (finalFragment) {
+          fragmentedTextData += "|";
+      }
+  }
+}
+
+// Tests dispatching the fragments of a text message one by one when fragment delivery is enabled
+@test:Config {}
+public function testDeliverTextFragments() returns Error? {
+   Client wsClient = check new("ws://localhost:21327/onTextFragments/", config = {maxFrameSize: 4});
+   check wsClient->writeTextMessage("text data");
+   runtime:sleep(5);
+   test:assertEquals(receivedFragments, 3, msg = "Failed testDeliverTextFragments");
+   test:assertEquals(fragmentedTextData, "text data|", msg = "Failed testDeliverTextFragments");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
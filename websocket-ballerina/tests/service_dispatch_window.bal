@@ -0,0 +1,53 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+listener Listener l65 = new(21329);
+
+@ServiceConfig {
+   dispatchWindow: 4,
+   orderedDispatch: true
+}
+service /onDispatchWindow on l65 {
+   resource function get .() returns Service|UpgradeError {
+       return new DispatchWindowService();
+   }
+}
+
+service class DispatchWindowService {
+  *Service;
+  remote function onTextMessage(string data) returns string {
+      if (data == "slow") {
+          runtime:sleep(1);
+      }
+      return data;
+  }
+}
+
+// Tests that the messages returned within the dispatch window are sent in the order the messages arrived
+@test:Config {}
+public function testOrderedDispatchWindow() returns Error? {
+   Client wsClient = check new("ws://localhost:21329/onDispatchWindow/");
+   check wsClient->writeTextMessage("slow");
+   check wsClient->writeTextMessage("fast");
+   string first = check wsClient->readTextMessage();
+   string second = check wsClient->readTextMessage();
+   test:assertEquals(first, "slow", msg = "Failed testOrderedDispatchWindow");
+   test:assertEquals(second, "fast", msg = "Failed testOrderedDispatchWindow");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
@@ -0,0 +1,56 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+string maxMessageSizeError = "";
+
+listener Listener l62 = new(21326);
+
+@ServiceConfig {
+   maxMessageSize: 8
+}
+service /onMaxMessageSize on l62 {
+   resource function get .() returns Service|UpgradeError {
+       return new MaxMessageSizeService();
+   }
+}
+
+service class MaxMessageSizeService {
+  *Service;
+  remote isolated function onTextMessage(Caller caller, string data) returns Error? {
+      check caller->writeTextMessage(data);
+  }
+  remote function onError(Caller caller, error err) {
+      maxMessageSizeError = err.message();
+  }
+}
+
+// Tests closing the connection when a message exceeds the maximum message size of the service
+@test:Config {}
+public function testMaxMessageSizeExceeded() returns Error? {
+   Client wsClient = check new("ws://localhost:21326/onMaxMessageSize/");
+   check wsClient->writeTextMessage("Hi");
+   string resp = check wsClient->readTextMessage();
+   test:assertEquals(resp, "Hi", msg = "Failed testMaxMessageSizeExceeded");
+   check wsClient->writeTextMessage("message larger than the limit");
+   runtime:sleep(3);
+   test:assertEquals(maxMessageSizeError, "Max message length of 8 has been exceeded.",
+       msg = "Failed testMaxMessageSizeExceeded");
+   string|Error closed = wsClient->readTextMessage();
+   test:assertTrue(closed is Error, msg = "Failed testMaxMessageSizeExceeded");
+}
@@ -0,0 +1,84 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+import ballerina/time;
+
+listener Listener l76 = new(21340);
+
+service /onBatchRead on l76 {
+   resource function get .() returns Service|UpgradeError {
+       return new BatchReadService();
+   }
+}
+
+service class BatchReadService {
+  *Service;
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      check caller->writeTextMessages([data + "1", data + "2", data + "3"]);
+      check caller->writeBinaryMessage(data.toBytes());
+  }
+}
+
+// Tests that a batch read returns the received messages of one kind and stops at a message of the other kind
+@test:Config {}
+public function testBatchRead() returns Error? {
+   Client wsClient = check new("ws://localhost:21340/onBatchRead/", config = {prefetchMessages: 8});
+   check wsClient->writeTextMessage("batch");
+   runtime:sleep(0.5);
+   string[] texts = check wsClient->readTextMessages(10);
+   string[]|Error mismatch = wsClient->readTextMessages(10);
+   byte[][] binaries = check wsClient->readBinaryMessages(10, 5);
+   test:assertEquals(texts, ["batch1", "batch2", "batch3"], msg = "Failed testBatchRead");
+   test:assertTrue(mismatch is Error, msg = "Failed testBatchRead");
+   test:assertEquals(binaries.length(), 1, msg = "Failed testBatchRead");
+   test:assertEquals(binaries[0], "batch".toBytes(), msg = "Failed testBatchRead");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests that a batch read waits for a message when none has been received
+@test:Config {}
+public function testBatchReadWaitsForMessage() returns Error? {
+   Client wsClient = check new("ws://localhost:21340/onBatchRead/");
+   check wsClient->writeTextMessage("wait");
+   string[] texts = check wsClient->readTextMessages(2, 5);
+   test:assertEquals(texts, ["wait1"], msg = "Failed testBatchReadWaitsForMessage");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests that a batch read with a zero timeout returns without waiting when no message has been received
+@test:Config {}
+public function testBatchReadWithZeroTimeout() returns Error? {
+   Client wsClient = check new("ws://localhost:21340/onBatchRead/");
+   string[] texts = check wsClient->readTextMessages(5, 0);
+   byte[][] binaries = check wsClient->readBinaryMessages(5, 0);
+   test:assertEquals(texts.length(), 0, msg = "Failed testBatchReadWithZeroTimeout");
+   test:assertEquals(binaries.length(), 0, msg = "Failed testBatchReadWithZeroTimeout");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests that a batch read times out after a fraction of a second rather than a whole second
+@test:Config {}
+public function testBatchReadWithFractionalTimeout() returns Error? {
+   Client wsClient = check new("ws://localhost:21340/onBatchRead/");
+   int startTime = time:currentTime().time;
+   string[]|Error texts = wsClient->readTextMessages(5, 0.1);
+   int elapsedTime = time:currentTime().time - startTime;
+   test:assertTrue(texts is ReadTimedOutError, msg = "Failed testBatchReadWithFractionalTimeout");
+   test:assertTrue(elapsedTime < 900, msg = "Failed testBatchReadWithFractionalTimeout");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
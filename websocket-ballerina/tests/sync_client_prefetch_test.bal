@@ -0,0 +1,79 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+listener Listener l75 = new(21339);
+
+service /onPrefetch on l75 {
+   resource function get .() returns Service|UpgradeError {
+       return new PrefetchService();
+   }
+}
+
+service class PrefetchService {
+  *Service;
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      check caller->writeTextMessages([data + "1", data + "2", data + "3"]);
+      check caller->writeBinaryMessage(data.toBytes());
+  }
+}
+
+// Tests that the messages read ahead of the reads are returned in order
+@test:Config {}
+public function testPrefetchMessages() returns Error? {
+   Client wsClient = check new("ws://localhost:21339/onPrefetch/", config = {prefetchMessages: 2});
+   check wsClient->writeTextMessage("prefetch");
+   runtime:sleep(0.5);
+   string first = check wsClient->readTextMessage();
+   string second = check wsClient->readTextMessage();
+   string third = check wsClient->readTextMessage();
+   byte[] binary = check wsClient->readBinaryMessage();
+   test:assertEquals(first, "prefetch1", msg = "Failed testPrefetchMessages");
+   test:assertEquals(second, "prefetch2", msg = "Failed testPrefetchMessages");
+   test:assertEquals(third, "prefetch3", msg = "Failed testPrefetchMessages");
+   test:assertEquals(binary, "prefetch".toBytes(), msg = "Failed testPrefetchMessages");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests that messages are read ahead up to the prefetch depth and that reading stops while the queue is full
+@test:Config {}
+public function testPrefetchReadsAheadUpToDepth() returns Error? {
+   Client wsClient = check new("ws://localhost:21339/onPrefetch/", config = {prefetchMessages: 2});
+   check wsClient->writeTextMessage("depth");
+   runtime:sleep(0.5);
+   test:assertEquals(externGetReceivedMessageCount(wsClient), 2, msg = "Failed testPrefetchReadsAheadUpToDepth");
+   string first = check wsClient->readTextMessage();
+   runtime:sleep(0.5);
+   test:assertEquals(first, "depth1", msg = "Failed testPrefetchReadsAheadUpToDepth");
+   test:assertEquals(externGetReceivedMessageCount(wsClient), 2, msg = "Failed testPrefetchReadsAheadUpToDepth");
+   string[] texts = check wsClient->readTextMessages(10);
+   runtime:sleep(0.5);
+   test:assertEquals(texts, ["depth2", "depth3"], msg = "Failed testPrefetchReadsAheadUpToDepth");
+   test:assertEquals(externGetReceivedMessageCount(wsClient), 1, msg = "Failed testPrefetchReadsAheadUpToDepth");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests that no message is read ahead of the reads when prefetching is disabled
+@test:Config {}
+public function testNoReadAheadWithoutPrefetch() returns Error? {
+   Client wsClient = check new("ws://localhost:21339/onPrefetch/");
+   check wsClient->writeTextMessage("none");
+   runtime:sleep(0.5);
+   test:assertEquals(externGetReceivedMessageCount(wsClient), 0, msg = "Failed testNoReadAheadWithoutPrefetch");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
@@ -0,0 +1,46 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+string utf8ChunkData = "";
+
+listener Listener l66 = new(21330);
+
+service /onUtf8TextChunks on l66 {
+   resource function get .() returns Service|UpgradeError {
+       return new Utf8ChunkService();
+   }
+}
+
+service class Utf8ChunkService {
+  *Service;
+  remote function onTextMessage(string data) {
+      utf8ChunkData = data;
+  }
+}
+
+// Tests writing multi-byte text as continuation frames without splitting a code point across frames
+@test:Config {}
+public function testSendUtf8TextDataChunks() returns Error? {
+   Client wsClient = check new("ws://localhost:21330/onUtf8TextChunks/", config = {maxFrameSize: 4});
+   string textData = "héllo wörld ✓ ok";
+   check wsClient->writeTextMessage(textData);
+   runtime:sleep(3);
+   test:assertEquals(utf8ChunkData, textData, msg = "Failed testSendUtf8TextDataChunks");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
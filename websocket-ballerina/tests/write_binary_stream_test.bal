@@ -0,0 +1,107 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+listener Listener l72 = new(21336);
+
+service /onBinaryStream on l72 {
+   resource function get .() returns Service|UpgradeError {
+       return new BinaryStreamService();
+   }
+}
+
+service class BinaryStreamService {
+  *Service;
+  remote function onBinaryMessage(Caller caller, byte[] data) returns Error? {
+      byte[][] chunks = [data.slice(0, data.length() / 2), data.slice(data.length() / 2)];
+      check caller->writeBinaryStream(chunks.toStream());
+  }
+
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      check caller->writeTextMessage(data);
+  }
+}
+
+isolated class DelayedChunks {
+  private final byte[][] & readonly chunks;
+  private int index = 0;
+
+  isolated function init(byte[][] & readonly chunks) {
+      self.chunks = chunks;
+  }
+
+  public isolated function next() returns record {| byte[] value; |}|error? {
+      boolean started;
+      lock {
+          started = self.index > 0;
+      }
+      if (started) {
+          runtime:sleep(0.2);
+      }
+      lock {
+          if (self.index == self.chunks.length()) {
+              return ();
+          }
+          byte[] chunk = self.chunks[self.index].clone();
+          self.index += 1;
+          return {value: chunk};
+      }
+  }
+}
+
+function writeTextWhileStreaming(Client wsClient) returns Error? {
+   runtime:sleep(0.1);
+   check wsClient->writeTextMessage("written while streaming");
+}
+
+// Tests that the chunks of a stream are written as a single message
+@test:Config {}
+public function testWriteBinaryStream() returns Error? {
+   Client wsClient = check new("ws://localhost:21336/onBinaryStream/");
+   byte[][] chunks = [[1, 2, 3], [4, 5], [], [6]];
+   check wsClient->writeBinaryStream(chunks.toStream());
+   byte[] echoed = check wsClient->readBinaryMessage();
+   test:assertEquals(echoed, <byte[]>[1, 2, 3, 4, 5, 6], msg = "Failed testWriteBinaryStream");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests that an empty stream is written as an empty message
+@test:Config {}
+public function testWriteEmptyBinaryStream() returns Error? {
+   Client wsClient = check new("ws://localhost:21336/onBinaryStream/");
+   byte[][] chunks = [];
+   check wsClient->writeBinaryStream(chunks.toStream());
+   byte[] echoed = check wsClient->readBinaryMessage();
+   test:assertEquals(echoed.length(), 0, msg = "Failed testWriteEmptyBinaryStream");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests that a message written while a stream is being written is sent after the message of the stream
+@test:Config {}
+public function testWriteWhileStreaming() returns Error? {
+   Client wsClient = check new("ws://localhost:21336/onBinaryStream/");
+   byte[][] & readonly chunks = [[1, 2], [3, 4], [5, 6]];
+   future<Error?> textWrite = start writeTextWhileStreaming(wsClient);
+   check wsClient->writeBinaryStream(new stream<byte[], error?>(new DelayedChunks(chunks)));
+   check wait textWrite;
+   byte[] echoed = check wsClient->readBinaryMessage();
+   test:assertEquals(echoed, <byte[]>[1, 2, 3, 4, 5, 6], msg = "Failed testWriteWhileStreaming");
+   string text = check wsClient->readTextMessage();
+   test:assertEquals(text, "written while streaming", msg = "Failed testWriteWhileStreaming");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
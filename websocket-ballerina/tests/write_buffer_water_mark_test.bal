@@ -0,0 +1,124 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+int waterMarkReceivedLength = 0;
+boolean callerWritable = false;
+boolean pendingWriteReturned = false;
+boolean writableAfterPendingWrite = false;
+int bufferedAfterPendingWrite = -1;
+
+listener Listener l68 = new(21332);
+
+@ServiceConfig {
+    writeBufferHighWaterMark: 4096,
+    writeBufferLowWaterMark: 1024,
+    waitUntilWritable: true
+}
+service /onWaterMark on l68 {
+   resource function get .() returns Service|UpgradeError {
+       return new WaterMarkService();
+   }
+}
+
+service class WaterMarkService {
+  *Service;
+  remote function onBinaryMessage(Caller caller, byte[] data) returns Error? {
+      waterMarkReceivedLength = data.length();
+      check caller->writeBinaryMessage(data);
+      callerWritable = caller.isWritable();
+  }
+}
+
+@ServiceConfig {
+    writeBufferHighWaterMark: 4096,
+    writeBufferLowWaterMark: 1024,
+    waitUntilWritable: true
+}
+service /onWaterMarkPending on l68 {
+   resource function get .() returns Service|UpgradeError {
+       return new PendingWriteService();
+   }
+}
+
+service class PendingWriteService {
+  *Service;
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      byte[] fill = [];
+      fill[16777215] = 1;
+      check caller->queueBinaryMessage(fill);
+      future<Error?> pendingWrite = start writeAndRecordWritability(caller);
+      runtime:sleep(0.5);
+      byte[] bulk = [];
+      bulk[16777215] = 2;
+      check caller->queueBinaryMessage(bulk);
+      check wait pendingWrite;
+  }
+}
+
+function writeAndRecordWritability(Caller caller) returns Error? {
+   byte[] data = [];
+   data[8191] = 3;
+   check caller->writeBinaryMessage(data);
+   pendingWriteReturned = true;
+   writableAfterPendingWrite = caller.isWritable();
+   bufferedAfterPendingWrite = caller.bufferedAmount();
+}
+
+// Tests that writes above the high water mark complete once the connection is writable again
+@test:Config {}
+public function testWaitUntilWritable() returns Error? {
+   Client wsClient = check new("ws://localhost:21332/onWaterMark/", config = {
+       writeBufferHighWaterMark: 4096,
+       waitUntilWritable: true
+   });
+   byte[] data = [];
+   data[65535] = 1;
+   check wsClient->writeBinaryMessage(data);
+   test:assertTrue(wsClient.isWritable(), msg = "Failed testWaitUntilWritable");
+   test:assertTrue(wsClient.bufferedAmount() <= 4096, msg = "Failed testWaitUntilWritable");
+   byte[] echoed = check wsClient->readBinaryMessage();
+   runtime:sleep(1);
+   test:assertEquals(waterMarkReceivedLength, 65536, msg = "Failed testWaitUntilWritable");
+   test:assertEquals(echoed.length(), 65536, msg = "Failed testWaitUntilWritable");
+   test:assertTrue(callerWritable, msg = "Failed testWaitUntilWritable");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests that a write whose frames have been sent stays pending while the messages written after it keep the buffer
+// above the high water mark, and completes once the buffer drains below the low water mark. The sync client does not
+// read until a read is called, so the server's buffer only drains as the client reads.
+@test:Config {}
+public function testWriteWaitsForLowWaterMark() returns Error? {
+   Client wsClient = check new("ws://localhost:21332/onWaterMarkPending/");
+   check wsClient->writeTextMessage("start");
+   runtime:sleep(1);
+   test:assertFalse(pendingWriteReturned, msg = "Failed testWriteWaitsForLowWaterMark");
+   byte[] fill = check wsClient->readBinaryMessage();
+   byte[] pending = check wsClient->readBinaryMessage();
+   test:assertEquals(pending.length(), 8192, msg = "Failed testWriteWaitsForLowWaterMark");
+   runtime:sleep(1);
+   test:assertFalse(pendingWriteReturned, msg = "Failed testWriteWaitsForLowWaterMark");
+   byte[] bulk = check wsClient->readBinaryMessage();
+   runtime:sleep(1);
+   test:assertTrue(pendingWriteReturned, msg = "Failed testWriteWaitsForLowWaterMark");
+   test:assertTrue(writableAfterPendingWrite, msg = "Failed testWriteWaitsForLowWaterMark");
+   test:assertTrue(bufferedAfterPendingWrite <= 1024, msg = "Failed testWriteWaitsForLowWaterMark");
+   test:assertEquals(bulk.length(), 16777216, msg = "Failed testWriteWaitsForLowWaterMark");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
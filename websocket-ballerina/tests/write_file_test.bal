@@ -0,0 +1,65 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/io;
+import ballerina/test;
+
+const string WRITE_FILE_PATH = "target/write_file_test.bin";
+
+listener Listener l73 = new(21337);
+
+service /onWriteFile on l73 {
+   resource function get .() returns Service|UpgradeError {
+       return new WriteFileService();
+   }
+}
+
+service class WriteFileService {
+  *Service;
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      if (data == "whole") {
+          check caller->writeFile(WRITE_FILE_PATH, 3);
+      } else {
+          check caller->writeFile(WRITE_FILE_PATH, offset = 2, length = 4);
+      }
+  }
+}
+
+// Tests that a file is written as a single binary message, whole or as a range
+@test:Config {}
+public function testWriteFile() returns error? {
+   check io:fileWriteBytes(WRITE_FILE_PATH, [0, 1, 2, 3, 4, 5, 6, 7, 8, 9]);
+   Client wsClient = check new("ws://localhost:21337/onWriteFile/");
+   check wsClient->writeTextMessage("whole");
+   byte[] whole = check wsClient->readBinaryMessage();
+   check wsClient->writeTextMessage("range");
+   byte[] range = check wsClient->readBinaryMessage();
+   test:assertEquals(whole, <byte[]>[0, 1, 2, 3, 4, 5, 6, 7, 8, 9], msg = "Failed testWriteFile");
+   test:assertEquals(range, <byte[]>[2, 3, 4, 5], msg = "Failed testWriteFile");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests that writing a range outside the file returns an error
+@test:Config {}
+public function testWriteFileOutOfRange() returns error? {
+   check io:fileWriteBytes(WRITE_FILE_PATH, [0, 1, 2, 3, 4, 5, 6, 7, 8, 9]);
+   Client wsClient = check new("ws://localhost:21337/onWriteFile/");
+   Error? result = wsClient->writeFile(WRITE_FILE_PATH, offset = 8, length = 4);
+   test:assertTrue(result is Error, msg = "Failed testWriteFileOutOfRange");
+   result = wsClient->writeFile("target/missing_write_file_test.bin");
+   test:assertTrue(result is Error, msg = "Failed testWriteFileOutOfRange");
+   error? closeResult = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
@@ -0,0 +1,63 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime as runtime;
+import ballerina/test;
+
+string[] flushedMessages = [];
+
+listener Listener l67 = new(21331);
+
+@ServiceConfig {
+    maxUnflushedWrites: 16
+}
+service /onTextMessages on l67 {
+   resource function get .() returns Service|UpgradeError {
+       return new WriteTextMessagesService();
+   }
+}
+
+service class WriteTextMessagesService {
+  *Service;
+  remote function onTextMessage(Caller caller, string data) returns Error? {
+      if (data == "echo") {
+          check caller->writeTextMessages(["first", "second", "third"]);
+      } else {
+          flushedMessages.push(data);
+      }
+  }
+}
+
+// Tests writing a sequence of text messages from the client with a single flush
+@test:Config {}
+public function testClientWriteTextMessages() returns Error? {
+   Client wsClient = check new("ws://localhost:21331/onTextMessages/", config = {maxUnflushedWrites: 8});
+   check wsClient->writeTextMessages(["hello", "", "wörld"]);
+   runtime:sleep(3);
+   test:assertEquals(flushedMessages, ["hello", "", "wörld"], msg = "Failed testClientWriteTextMessages");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
+
+// Tests writing a sequence of text messages from the caller of a service which consolidates flushes
+@test:Config {}
+public function testCallerWriteTextMessages() returns Error? {
+   Client wsClient = check new("ws://localhost:21331/onTextMessages/");
+   check wsClient->writeTextMessage("echo");
+   test:assertEquals(check wsClient->readTextMessage(), "first", msg = "Failed testCallerWriteTextMessages");
+   test:assertEquals(check wsClient->readTextMessage(), "second", msg = "Failed testCallerWriteTextMessages");
+   test:assertEquals(check wsClient->readTextMessage(), "third", msg = "Failed testCallerWriteTextMessages");
+   error? result = wsClient->close(statusCode = 1000, reason = "Close the connection", timeout = 0);
+}
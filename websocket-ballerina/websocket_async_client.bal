@@ -202,7 +202,16 @@ import ballerina/mime;
 # | customHeaders - Copied from CommonWebSocketClientConfiguration               |
 # | idleTimeout - Copied from CommonWebSocketClientConfiguration        |
 # | secureSocket - Copied from CommonWebSocketClientConfiguration                |
+# | prefetchMessages - Copied from CommonWebSocketClientConfiguration            |
 # | maxFrameSize - Copied from CommonWebSocketClientConfiguration                |
+# | maxMessageSize - Copied from CommonWebSocketClientConfiguration              |
+# | maxUnflushedWrites - Copied from CommonWebSocketClientConfiguration          |
+# | writeBufferHighWaterMark - Copied from CommonWebSocketClientConfiguration    |
+# | writeBufferLowWaterMark - Copied from CommonWebSocketClientConfiguration     |
+# | waitUntilWritable - Copied from CommonWebSocketClientConfiguration           |
+# | maxQueuedWrites - Copied from CommonWebSocketClientConfiguration             |
+# | outboundDataWindow - Copied from CommonWebSocketClientConfiguration          |
+# | isolatedEventLoops - Copied from CommonWebSocketClientConfiguration          |
 # | webSocketCompressionEnabled - Copied from CommonWebSocketClientConfiguration |
 # | handShakeTimeout - Copied from CommonWebSocketClientConfiguration   |
 # | cookies - Copied from CommonWebSocketClientConfiguration                     |
@@ -217,9 +226,37 @@ public type ClientConfiguration record {|
 # + subProtocols - Negotiable sub protocols of the client
 # + customHeaders - Custom headers, which should be sent to the server
 # + readTimeout - Read timeout (in seconds) of the client. This is applicable only for the Sync client
+# + prefetchMessages - The number of messages read ahead of the read actions into a queue, so that a read returns
+#                      right away when a message has already been received. Reading from the connection pauses while
+#                      the queue is full. If this is not set or is zero, a message is read only when a read action
+#                      is called. This is applicable only for the Sync client
 # + secureSocket - SSL/TLS-related options
 # + maxFrameSize - The maximum payload size of a WebSocket frame in bytes
 #                  If this is not set, is negative, or is zero, the default frame size of 65536 will be used.
+# + maxMessageSize - The maximum size of a message in bytes, aggregated across its fragments. The connection is
+#                    closed with the status code 1009 as soon as a message exceeds it.
+#                    If this is not set, is negative, or is zero, the message size is not limited.
+# + maxUnflushedWrites - Consolidates the flushes of the frames written to the connection. When this is positive, the
+#                        frames written within the same event loop turn are flushed together, and at the latest after
+#                        this many writes. If this is not set, is negative, or is zero, each frame is flushed as it is
+#                        written.
+# + writeBufferHighWaterMark - The number of bytes buffered for writing after which the connection is no longer
+#                              writable. If this is not set, is negative, or is zero, the default of 65536 will be
+#                              used.
+# + writeBufferLowWaterMark - The number of bytes buffered for writing below which a connection which is no longer
+#                             writable becomes writable again. If this is not set, is negative, or is zero, half of
+#                             the high water mark will be used.
+# + waitUntilWritable - Completes the write actions of a connection which is no longer writable only once it becomes
+#                       writable again
+# + maxQueuedWrites - The maximum number of messages queued with `queueTextMessage` or `queueBinaryMessage` which
+#                     may be in flight at a time. If this is not set, is negative, or is zero, the default of 1024
+#                     will be used.
+# + outboundDataWindow - Schedules the outbound frames so that pings and pongs are sent after at most this many bytes
+#                        of data frames already written, and urgent messages are sent ahead of the other messages
+#                        which have not started yet. If this is not set, is negative, or is zero, the frames are sent
+#                        in the order they are written.
+# + isolatedEventLoops - Serves the connection with event loops of its own instead of the event loops shared by
+#                        all the clients, which are sized with the `clientEventLoopThreads` configurable
 # + webSocketCompressionEnabled - Enable support for compression in the WebSocket
 # + handShakeTimeout - Time (in seconds) that a connection waits to get the response of
 #                               the webSocket handshake. If the timeout exceeds, then the connection is terminated with
@@ -232,8 +269,17 @@ public type CommonWebSocketClientConfiguration record {|
     string[] subProtocols = [];
     map<string> customHeaders = {};
     decimal readTimeout = -1;
+    int prefetchMessages = 0;
     http:ClientSecureSocket? secureSocket = ();
     int maxFrameSize = 65536;
+    int maxMessageSize = 0;
+    int maxUnflushedWrites = 0;
+    int writeBufferHighWaterMark = 0;
+    int writeBufferLowWaterMark = 0;
+    boolean waitUntilWritable = false;
+    int maxQueuedWrites = 1024;
+    int outboundDataWindow = 0;
+    boolean isolatedEventLoops = false;
     boolean webSocketCompressionEnabled = true;
     decimal handShakeTimeout = 300;
     http:Cookie[] cookies?;
@@ -0,0 +1,70 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# Writes a text message to each of the given connections. The message is encoded and split into frames once and
+# the frames are shared by all the connections. The function returns once the message has been handed to every
+# connection without waiting for it to be sent to slow peers. Connections which are closed or which are not
+# writable are skipped and reported in the failures of the result.
+#
+# + callers - The connections to write to
+# + data - Data to be sent
+# + return - The number of connections the message was handed to and the failures of the rest
+public isolated function broadcastTextMessage(Caller[] callers, string data) returns BroadcastResult {
+    return toBroadcastResult(externBroadcastTextMessage(callers, data));
+}
+
+# Writes binary data to each of the given connections. The data is split into frames once and the frames are
+# shared by all the connections. The function returns once the data has been handed to every connection without
+# waiting for it to be sent to slow peers. Connections which are closed or which are not writable are skipped and
+# reported in the failures of the result.
+#
+# + callers - The connections to write to
+# + data - Binary data to be sent
+# + return - The number of connections the data was handed to and the failures of the rest
+public isolated function broadcastBinaryMessage(Caller[] callers, byte[] data) returns BroadcastResult {
+    return toBroadcastResult(externBroadcastBinaryMessage(callers, data));
+}
+
+# The outcome of a broadcast as reported by the native implementation, with the failures given as error messages.
+#
+# + sent - The number of connections the message was handed to
+# + failures - The error messages of the connections the message could not be handed to, keyed by the connection ID
+type BroadcastOutcome record {|
+    int sent;
+    map<string> failures;
+|};
+
+isolated function toBroadcastResult(BroadcastOutcome outcome) returns BroadcastResult {
+    map<Error> failures = {};
+    foreach [string, string] [connectionId, message] in outcome.failures.entries() {
+        failures[connectionId] = error WsConnectionError(message);
+    }
+    return {sent: outcome.sent, failures: failures};
+}
+
+isolated function externBroadcastTextMessage(Caller[] callers, string data) returns BroadcastOutcome =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
+    name: "broadcastTextMessage"
+} external;
+
+isolated function externBroadcastBinaryMessage(Caller[] callers, byte[] data) returns BroadcastOutcome =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
+    name: "broadcastBinaryMessage"
+} external;
@@ -34,18 +34,82 @@ public client class Caller {
     # will be lost.
     #
     # + data - Data to be sent.
+    # + urgent - Whether the message is sent ahead of the other messages which have not started yet. This applies
+    #            only when `outboundDataWindow` is configured
     # + return  - An `error` if an error occurs when sending
-    remote isolated function writeTextMessage(string data) returns Error? {
-        return self.conn.writeTextMessage(data);
+    remote isolated function writeTextMessage(string data, boolean urgent = false) returns Error? {
+        return self.conn.writeTextMessage(data, urgent);
+    }
+
+    # Pushes a sequence of text messages to the connection. The frames of all the messages are written before the
+    # connection is flushed once. If an error occurs while sending the messages, the messages which are not yet sent
+    # will be lost.
+    #
+    # + data - Text messages to be sent, in order
+    # + return  - An `error` if an error occurs when sending
+    remote isolated function writeTextMessages(string[] data) returns Error? {
+        return self.conn.writeTextMessages(data);
+    }
+
+    # Queues text to be written to the connection without waiting for it to be sent. The failure of a queued
+    # message is returned by the next call to queue a message, in which case that message is not queued.
+    #
+    # + data - Data to be sent
+    # + return  - An `error` if a previously queued message failed or if too many messages are in flight
+    remote isolated function queueTextMessage(string data) returns Error? {
+        return self.conn.queueTextMessage(data);
+    }
+
+    # Queues binary data to be written to the connection without waiting for it to be sent. The failure of a queued
+    # message is returned by the next call to queue a message, in which case that message is not queued.
+    #
+    # + data - Binary data to be sent
+    # + return  - An `error` if a previously queued message failed or if too many messages are in flight
+    remote isolated function queueBinaryMessage(byte[] data) returns Error? {
+        return self.conn.queueBinaryMessage(data);
+    }
+
+    # Takes the errors of the queued messages which failed and have not been reported yet.
+    #
+    # + return - The errors in the order the messages failed
+    public isolated function drainWriteErrors() returns Error[] {
+        return self.conn.drainWriteErrors();
     }
 
     # Pushes binary data to the connection. If an error occurs while sending the binary message to the connection,
     # that message will be lost.
     #
     # + data - Binary data to be sent
+    # + urgent - Whether the message is sent ahead of the other messages which have not started yet. This applies
+    #            only when `outboundDataWindow` is configured
     # + return  - An `error` if an error occurs when sending
-    remote isolated function writeBinaryMessage(byte[] data) returns Error? {
-        return self.conn.writeBinaryMessage(data);
+    remote isolated function writeBinaryMessage(byte[] data, boolean urgent = false) returns Error? {
+        return self.conn.writeBinaryMessage(data, urgent);
+    }
+
+    # Writes a binary message whose chunks are produced by a stream, such as the `blockStream` of an
+    # `io:ReadableByteChannel`. Only one chunk is held in memory at a time. Other data messages written to the
+    # connection meanwhile are held back until this message ends.
+    #
+    # + data - The chunks of the message
+    # + return  - An `error` if the stream fails or if an error occurs when sending
+    remote isolated function writeBinaryStream(stream<byte[], error?> data) returns Error? {
+        return self.conn.writeBinaryStream(data);
+    }
+
+    # Writes a range of a file as a binary message. The range is read and sent in fragments one chunk at a time, so
+    # the file is not read into memory as a whole. Other data messages written to the connection meanwhile are held
+    # back until this message ends.
+    #
+    # + path - Path of the file
+    # + fragmentSize - Maximum payload size of a fragment. If this is less than one, the max frame size of the
+    #                  endpoint is used
+    # + offset - Position in the file of the first byte to send
+    # + length - Number of bytes to send. If this is negative, the rest of the file from the offset is sent
+    # + return  - An `error` if the file can not be read or if an error occurs when sending
+    remote isolated function writeFile(string path, int fragmentSize = 0, int offset = 0, int length = -1)
+                                       returns Error? {
+        return self.conn.writeFile(path, fragmentSize, offset, length);
     }
 
     # Pings the connection. If an error occurs while sending the ping frame to the server, that frame will be lost.
@@ -104,6 +168,22 @@ public client class Caller {
         return self.attributes.remove(key);
     }
 
+    # Adds the connection to a group of the listener, so that it receives the messages published to the group
+    # through `websocket:Listener`. The connection leaves all its groups when it is closed.
+    #
+    # + group - The name of the group
+    # + return - An `error` if the connection could not join the group
+    public isolated function joinGroup(string group) returns Error? {
+        return self.conn.joinGroup(group);
+    }
+
+    # Removes the connection from a group of the listener.
+    #
+    # + group - The name of the group
+    public isolated function leaveGroup(string group) {
+        self.conn.leaveGroup(group);
+    }
+
     # Gives the connection id associated with this connection.
     #
     # + return - The unique ID associated with the connection
@@ -131,4 +211,18 @@ public client class Caller {
     public isolated function isOpen() returns boolean {
         return self.open;
     }
+
+    # Gives the number of bytes written to the connection which are not yet sent to the network.
+    #
+    # + return - The number of buffered bytes
+    public isolated function bufferedAmount() returns int {
+        return self.conn.bufferedAmount();
+    }
+
+    # Gives whether the connection can take more writes without exceeding the write buffer high water mark.
+    #
+    # + return - `true` if the connection is writable
+    public isolated function isWritable() returns boolean {
+        return self.conn.isWritable();
+    }
 }
@@ -0,0 +1,246 @@
+// Copyright (c) 2021 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/time;
+
+# Configurations of a `ClientPool`.
+#
+# + minIdle - The number of clients opened when the pool is created, which the pool tops up to when it discards an
+#             idle client
+# + maxIdle - The maximum number of idle clients kept in the pool. A client returned to a full pool is closed
+# + maxActive - The maximum number of clients lent at a time. If this is not set or is negative or zero, the number of
+#               clients is not limited
+# + maxLifetime - Time (in seconds) after which a client is closed instead of being lent again. If this is not set or
+#                 is negative or zero, the lifetime of a client is not limited
+# + pingOnBorrow - Writes a ping to an idle client before lending it, so that a client whose write fails, such as one
+#                  whose connection was closed while it was idle, is discarded instead of being lent. The pong is not
+#                  waited for, so a connection which the remote endpoint dropped without closing it is not detected
+public type ClientPoolConfiguration record {|
+    int minIdle = 0;
+    int maxIdle = 8;
+    int maxActive = 0;
+    decimal maxLifetime = 0;
+    boolean pingOnBorrow = true;
+|};
+
+type PooledClient record {|
+    Client wsClient;
+    int createdTime;
+|};
+
+# Represents a pool of synchronous clients connected to the same URL with the same configurations. A client returned
+# to the pool is lent again by a later `borrow` instead of opening a new connection, which saves the TCP connect, the
+# TLS handshake and the WebSocket upgrade. A client must be used by one strand at a time between `borrow` and
+# `release`.
+public class ClientPool {
+
+    private final string url;
+    private final ClientConfiguration config;
+    private final ClientPoolConfiguration poolConfig;
+    private PooledClient[] idleClients = [];
+    private map<int> lentClients = {};
+    // The clients taken from the idle clients or being opened by `borrow`, which count towards `maxActive`
+    private int borrowingClients = 0;
+    private boolean closed = false;
+
+    # Initializes the pool and opens the `minIdle` clients. If one of them could not be opened, the clients which
+    # were already opened are closed.
+    #
+    # + url - URL of the target service
+    # + config - The configurations of the clients
+    # + poolConfig - The configurations of the pool
+    # + return - An `error` if `minIdle` is greater than `maxIdle` or if a client could not be opened
+    public isolated function init(string url, ClientConfiguration config = {},
+                                  ClientPoolConfiguration poolConfig = {}) returns Error? {
+        self.url = url;
+        self.config = config;
+        self.poolConfig = poolConfig;
+        if (poolConfig.minIdle > poolConfig.maxIdle) {
+            return error WsGenericClientError("The minIdle of a client pool (" + poolConfig.minIdle.toString() +
+                ") cannot be greater than its maxIdle (" + poolConfig.maxIdle.toString() + ")");
+        }
+        Error? result = self.fillIdleClients();
+        if (result is Error) {
+            Error? closeResult = self.close();
+            return result;
+        }
+    }
+
+    # Lends a client of the pool. An idle client is lent if there is a usable one, and a new client is opened
+    # otherwise.
+    #
+    # + return - The client or an `error` if the pool is closed, if `maxActive` clients are already lent, or if a new
+    #            client could not be opened
+    public isolated function borrow() returns Client|Error {
+        PooledClient? pooled = check self.takeIdleClient();
+        while (pooled is PooledClient) {
+            if (self.isUsable(pooled)) {
+                lock {
+                    self.borrowingClients -= 1;
+                    self.lentClients[pooled.wsClient.getConnectionId()] = pooled.createdTime;
+                }
+                return pooled.wsClient;
+            }
+            lock {
+                self.borrowingClients -= 1;
+            }
+            discardClient(pooled.wsClient);
+            pooled = check self.takeIdleClient();
+        }
+        return self.openClient();
+    }
+
+    # Returns a client to the pool. The client is kept for a later `borrow` if it is open and within its lifetime and
+    # the pool has room for it, and is closed otherwise. Clients which were not lent by this pool are ignored. When a
+    # client is closed, the pool opens clients until it has `minIdle` idle clients again.
+    #
+    # + wsClient - The client lent by `borrow`
+    # + return - An `error` if the pool could not open a client to replace the closed one
+    public isolated function release(Client wsClient) returns Error? {
+        boolean keep = false;
+        boolean lent = false;
+        lock {
+            int? createdTime = self.lentClients.removeIfHasKey(wsClient.getConnectionId());
+            if (createdTime is int) {
+                lent = true;
+                PooledClient pooled = {wsClient: wsClient, createdTime: createdTime};
+                keep = !self.closed && self.idleClients.length() < self.poolConfig.maxIdle &&
+                    wsClient.isOpen() && !self.isExpired(pooled);
+                if (keep) {
+                    self.idleClients.push(pooled);
+                }
+            }
+        }
+        if (lent && !keep) {
+            discardClient(wsClient);
+            return self.fillIdleClients();
+        }
+    }
+
+    # Closes the idle clients of the pool. The clients which are lent are closed when they are released.
+    #
+    # + return - An `error` if a client could not be closed
+    public isolated function close() returns Error? {
+        PooledClient[] idleClients = [];
+        lock {
+            self.closed = true;
+            idleClients = self.idleClients;
+            self.idleClients = [];
+        }
+        Error? result = ();
+        foreach PooledClient pooled in idleClients {
+            Error? closeResult = pooled.wsClient->close(timeout = 0);
+            if (closeResult is Error) {
+                result = closeResult;
+            }
+        }
+        return result;
+    }
+
+    # Gives the number of idle clients in the pool.
+    #
+    # + return - The number of idle clients
+    public isolated function getIdleCount() returns int {
+        lock {
+            return self.idleClients.length();
+        }
+    }
+
+    # Gives the number of clients lent by the pool which are not yet released.
+    #
+    # + return - The number of lent clients
+    public isolated function getActiveCount() returns int {
+        lock {
+            return self.lentClients.length();
+        }
+    }
+
+    isolated function takeIdleClient() returns PooledClient|Error? {
+        lock {
+            if (self.closed) {
+                return error WsGenericClientError("Client pool is closed");
+            }
+            int maxActive = self.poolConfig.maxActive;
+            if (maxActive > 0 && self.lentClients.length() + self.borrowingClients >= maxActive) {
+                return error WsGenericClientError("Client pool has reached the maximum of " + maxActive.toString() +
+                    " active clients");
+            }
+            self.borrowingClients += 1;
+            if (self.idleClients.length() > 0) {
+                return self.idleClients.shift();
+            }
+            return ();
+        }
+    }
+
+    isolated function openClient() returns Client|Error {
+        Client|Error wsClient = new (self.url, self.config);
+        lock {
+            self.borrowingClients -= 1;
+            if (wsClient is Client) {
+                self.lentClients[wsClient.getConnectionId()] = time:currentTime().time;
+            }
+        }
+        return wsClient;
+    }
+
+    isolated function fillIdleClients() returns Error? {
+        while (self.needsIdleClient()) {
+            Client wsClient = check new (self.url, self.config);
+            boolean pooled = false;
+            lock {
+                if (!self.closed) {
+                    self.idleClients.push({wsClient: wsClient, createdTime: time:currentTime().time});
+                    pooled = true;
+                }
+            }
+            if (!pooled) {
+                discardClient(wsClient);
+                return;
+            }
+        }
+    }
+
+    isolated function needsIdleClient() returns boolean {
+        lock {
+            return !self.closed && self.idleClients.length() < self.poolConfig.minIdle;
+        }
+    }
+
+    isolated function isUsable(PooledClient pooled) returns boolean {
+        if (!pooled.wsClient.isOpen() || self.isExpired(pooled)) {
+            return false;
+        }
+        if (self.poolConfig.pingOnBorrow) {
+            return pooled.wsClient->ping([]) is ();
+        }
+        return true;
+    }
+
+    isolated function isExpired(PooledClient pooled) returns boolean {
+        decimal maxLifetime = self.poolConfig.maxLifetime;
+        if (maxLifetime <= 0) {
+            return false;
+        }
+        return <decimal>(time:currentTime().time - pooled.createdTime) > maxLifetime * 1000;
+    }
+}
+
+isolated function discardClient(Client wsClient) {
+    if (wsClient.isOpen()) {
+        Error? result = wsClient->close(timeout = 0);
+    }
+}
@@ -24,18 +24,112 @@ class WebSocketConnector {
     # will be lost.
     #
     # + data - Data to be sent.
+    # + urgent - Whether the message is sent ahead of the other messages which have not started yet. This applies
+    #            only when `outboundDataWindow` is configured
     # + return  - An `error` if an error occurs when sending
-    public isolated function writeTextMessage(string data) returns Error? {
-        return externWriteTextMessage(self, data);
+    public isolated function writeTextMessage(string data, boolean urgent = false) returns Error? {
+        return externWriteTextMessage(self, data, urgent);
+    }
+
+    # Pushes a sequence of text messages to the connection. The frames of all the messages are written before the
+    # connection is flushed once. If an error occurs while sending the messages, the messages which are not yet sent
+    # will be lost.
+    #
+    # + data - Text messages to be sent, in order
+    # + return  - An `error` if an error occurs when sending
+    public isolated function writeTextMessages(string[] data) returns Error? {
+        return externWriteTextMessages(self, data);
     }
 
     # Pushes binary data to the connection. If an error occurs while sending the binary message to the connection,
     # that message will be lost.
     #
     # + data - Binary data to be sent
+    # + urgent - Whether the message is sent ahead of the other messages which have not started yet. This applies
+    #            only when `outboundDataWindow` is configured
     # + return  - An `error` if an error occurs when sending
-    public isolated function writeBinaryMessage(byte[] data) returns Error? {
-        return externWriteBinaryMessage(self, data);
+    public isolated function writeBinaryMessage(byte[] data, boolean urgent = false) returns Error? {
+        return externWriteBinaryMessage(self, data, urgent);
+    }
+
+    # Writes a binary message whose chunks are produced by a stream, such as the `blockStream` of an
+    # `io:ReadableByteChannel`. Each chunk is written as a fragment of the message once the previous one has been sent,
+    # so only one chunk is held in memory at a time, and the message is ended with an empty final fragment when the
+    # stream ends. Other data messages written to the connection meanwhile are held back until this message ends. If
+    # the stream fails or a fragment can not be sent midway, the connection is closed with the status code 1011 as
+    # the message can not be completed.
+    #
+    # + data - The chunks of the message
+    # + return  - An `error` if the stream fails or if an error occurs when sending
+    public isolated function writeBinaryStream(stream<byte[], error?> data) returns Error? {
+        boolean first = true;
+        record {| byte[] value; |}|error? chunk = data.next();
+        while (chunk is record {| byte[] value; |}) {
+            Error? result = externWriteBinaryFragment(self, chunk.value, first, false);
+            if (result is Error) {
+                Error? closeResult = self.close(1011, "Message could not be sent", 0);
+                return result;
+            }
+            first = false;
+            chunk = data.next();
+        }
+        if (chunk is error) {
+            if (!first) {
+                Error? closeResult = self.close(1011, "Message stream failed", 0);
+            }
+            return error WsGenericError("Error occurred when reading the message stream: " + chunk.message(), chunk);
+        }
+        Error? result = externWriteBinaryFragment(self, [], first, true);
+        if (result is Error && !first) {
+            Error? closeResult = self.close(1011, "Message could not be sent", 0);
+        }
+        return result;
+    }
+
+    # Writes a range of a file as a binary message. The range is read and sent in fragments one chunk at a time, so
+    # the file is not read into memory as a whole. Other data messages written to the connection meanwhile are held
+    # back until this message ends.
+    #
+    # + path - Path of the file
+    # + fragmentSize - Maximum payload size of a fragment. If this is less than one, the max frame size of the
+    #                  endpoint is used
+    # + offset - Position in the file of the first byte to send
+    # + length - Number of bytes to send. If this is negative, the rest of the file from the offset is sent
+    # + return  - An `error` if the file can not be read or if an error occurs when sending
+    public isolated function writeFile(string path, int fragmentSize = 0, int offset = 0, int length = -1)
+                                       returns Error? {
+        return externWriteFile(self, path, offset, length, fragmentSize);
+    }
+
+    # Queues text to be written to the connection without waiting for it to be sent. The failure of a queued
+    # message is returned by the next call to queue a message, in which case that message is not queued.
+    #
+    # + data - Data to be sent
+    # + return  - An `error` if a previously queued message failed or if too many messages are in flight
+    public isolated function queueTextMessage(string data) returns Error? {
+        return externQueueTextMessage(self, data);
+    }
+
+    # Queues binary data to be written to the connection without waiting for it to be sent. The failure of a queued
+    # message is returned by the next call to queue a message, in which case that message is not queued.
+    #
+    # + data - Binary data to be sent
+    # + return  - An `error` if a previously queued message failed or if too many messages are in flight
+    public isolated function queueBinaryMessage(byte[] data) returns Error? {
+        return externQueueBinaryMessage(self, data);
+    }
+
+    # Takes the errors of the queued messages which failed and have not been reported yet.
+    #
+    # + return - The errors in the order the messages failed
+    public isolated function drainWriteErrors() returns Error[] {
+        Error[] errors = [];
+        foreach error err in externDrainWriteErrors(self) {
+            if (err is Error) {
+                errors.push(err);
+            }
+        }
+        return errors;
     }
 
     # Pings the connection. If an error occurs while sending the ping frame to the connection, that frame will be lost.
@@ -55,6 +149,35 @@ class WebSocketConnector {
         return externPong(self, data);
     }
 
+    # Gives the number of bytes written to the connection which are not yet sent to the network.
+    #
+    # + return - The number of buffered bytes
+    public isolated function bufferedAmount() returns int {
+        return externBufferedAmount(self);
+    }
+
+    # Gives whether the connection can take more writes without exceeding the write buffer high water mark.
+    #
+    # + return - `true` if the connection is writable
+    public isolated function isWritable() returns boolean {
+        return externIsWritable(self);
+    }
+
+    # Adds the connection to a group of the listener it was accepted by.
+    #
+    # + group - The name of the group
+    # + return - An `error` if the connection was not accepted by a listener
+    public isolated function joinGroup(string group) returns Error? {
+        return externJoinGroup(self, group);
+    }
+
+    # Removes the connection from a group of the listener it was accepted by.
+    #
+    # + group - The name of the group
+    public isolated function leaveGroup(string group) {
+        externLeaveGroup(self, group);
+    }
+
     # Reads text data from the websocket connection.
     #
     # + return  - The text message or an `error` if an error occurs when sending
@@ -69,6 +192,32 @@ class WebSocketConnector {
         return externReadBinaryMessage(self);
     }
 
+    # Reads the text messages which have already been received, up to the given number, and waits for one only if
+    # none has been received. The messages end at the first binary message, which is left for `readBinaryMessage` or
+    # `readBinaryMessages`.
+    #
+    # + maxMessages - The maximum number of messages to read
+    # + timeout - Time (in seconds) to wait for a message when none has been received. If this is negative, the
+    #             `readTimeout` of the client is used. If this is zero, the messages which have already been
+    #             received are returned without waiting, which is an empty array if there are none
+    # + return  - The text messages or an `error` if an error occurs when reading
+    public isolated function readTextMessages(int maxMessages, decimal timeout = -1) returns string[]|Error {
+        return externReadTextMessages(self, maxMessages, timeout);
+    }
+
+    # Reads the binary messages which have already been received, up to the given number, and waits for one only if
+    # none has been received. The messages end at the first text message, which is left for `readTextMessage` or
+    # `readTextMessages`.
+    #
+    # + maxMessages - The maximum number of messages to read
+    # + timeout - Time (in seconds) to wait for a message when none has been received. If this is negative, the
+    #             `readTimeout` of the client is used. If this is zero, the messages which have already been
+    #             received are returned without waiting, which is an empty array if there are none
+    # + return  - The binary messages or an `error` if an error occurs when reading
+    public isolated function readBinaryMessages(int maxMessages, decimal timeout = -1) returns byte[][]|Error {
+        return externReadBinaryMessages(self, maxMessages, timeout);
+    }
+
     # Closes the connection.
     #
     # + statusCode - Status code for closing the connection
@@ -93,17 +242,79 @@ class WebSocketConnector {
     }
 }
 
-isolated function externWriteTextMessage(WebSocketConnector wsConnector, string text) returns Error? =
+isolated function externWriteTextMessage(WebSocketConnector wsConnector, string text, boolean urgent) returns Error? =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector"
+} external;
+
+isolated function externWriteTextMessages(WebSocketConnector wsConnector, string[] texts) returns Error? =
 @java:Method {
     'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector"
 } external;
 
-isolated function externWriteBinaryMessage(WebSocketConnector wsConnector, byte[] data) returns Error? =
+isolated function externWriteBinaryMessage(WebSocketConnector wsConnector, byte[] data, boolean urgent)
+                                          returns Error? =
 @java:Method {
     'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
     name: "writeBinaryMessage"
 } external;
 
+isolated function externWriteBinaryFragment(WebSocketConnector wsConnector, byte[] data, boolean first,
+                                           boolean last) returns Error? =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
+    name: "writeBinaryFragment"
+} external;
+
+isolated function externWriteFile(WebSocketConnector wsConnector, string path, int offset, int length,
+                                 int fragmentSize) returns Error? =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
+    name: "writeFile"
+} external;
+
+isolated function externBufferedAmount(WebSocketConnector wsConnector) returns int =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
+    name: "bufferedAmount"
+} external;
+
+isolated function externIsWritable(WebSocketConnector wsConnector) returns boolean =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
+    name: "isWritable"
+} external;
+
+isolated function externQueueTextMessage(WebSocketConnector wsConnector, string data) returns Error? =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
+    name: "queueTextMessage"
+} external;
+
+isolated function externQueueBinaryMessage(WebSocketConnector wsConnector, byte[] data) returns Error? =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
+    name: "queueBinaryMessage"
+} external;
+
+isolated function externDrainWriteErrors(WebSocketConnector wsConnector) returns error[] =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
+    name: "drainWriteErrors"
+} external;
+
+isolated function externJoinGroup(WebSocketConnector wsConnector, string group) returns Error? =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
+    name: "joinGroup"
+} external;
+
+isolated function externLeaveGroup(WebSocketConnector wsConnector, string group) =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
+    name: "leaveGroup"
+} external;
+
 isolated function externPing(WebSocketConnector wsConnector, byte[] data) returns Error? =
 @java:Method {
     'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector",
@@ -136,3 +347,15 @@ isolated function externReadBinaryMessage(WebSocketConnector wsConnector) return
 @java:Method {
     'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketSyncConnector"
 } external;
+
+isolated function externReadTextMessages(WebSocketConnector wsConnector, int maxMessages, decimal timeout)
+                                         returns string[]|Error =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketSyncConnector"
+} external;
+
+isolated function externReadBinaryMessages(WebSocketConnector wsConnector, int maxMessages, decimal timeout)
+                                           returns byte[][]|Error =
+@java:Method {
+    'class: "org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketSyncConnector"
+} external;
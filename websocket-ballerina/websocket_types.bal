@@ -25,3 +25,22 @@ public type UpgradeService service object {
 # The Websocket Sync client service type
 public type PingPongService service object {
 };
+
+# A binary message which was aggregated in a temporary file as it exceeded the `spillThreshold` of the service.
+# The file is deleted once `onBinaryMessage` returns.
+#
+# + path - Path of the temporary file holding the message
+# + length - Size of the message in bytes
+public type SpilledBinaryMessage record {|
+    string path;
+    int length;
+|};
+
+# The outcome of a broadcast to a set of connections.
+#
+# + sent - The number of connections the message was handed to
+# + failures - The errors of the connections the message could not be handed to, keyed by the connection ID
+public type BroadcastResult record {|
+    int sent;
+    map<Error> failures;
+|};
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares cutting a binary message into frames as WebSocketFrameWriter does with the way it was cut before. Each
+ * frame used to be copied into a new array, while the frame writer wraps the message once and writes every frame as a
+ * slice of it. Run it with -prof gc to compare the allocation per message as well as the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFrameBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    private int messageSize;
+
+    @Param({"16384"})
+    private int maxFrameSize;
+
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        data = new byte[messageSize];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+    }
+
+    @Benchmark
+    public void copiedPerFrame(Blackhole blackhole) {
+        ByteBuf payload = Unpooled.wrappedBuffer(ByteBuffer.wrap(data));
+        int length = payload.readableBytes();
+        int index = 0;
+        do {
+            int size = Math.min(maxFrameSize, length - index);
+            ByteBuf slice = payload.retainedSlice(index, size);
+            byte[] chunk = new byte[size];
+            slice.getBytes(0, chunk);
+            slice.release();
+            index += size;
+            ByteBuf framePayload = Unpooled.wrappedBuffer(ByteBuffer.wrap(chunk));
+            WebSocketFrame frame = index == size ? new BinaryWebSocketFrame(index == length, 0, framePayload) :
+                    new ContinuationWebSocketFrame(index == length, 0, framePayload);
+            blackhole.consume(frame);
+            frame.release();
+        } while (index < length);
+        payload.release();
+    }
+
+    @Benchmark
+    public void slicedOnce(Blackhole blackhole) {
+        ByteBuf payload = Unpooled.wrappedBuffer(data);
+        consumeFrames(WebSocketFrameWriter.createFrames(payload, maxFrameSize, false), blackhole);
+        payload.release();
+    }
+
+    private static void consumeFrames(List<WebSocketFrame> frames, Blackhole blackhole) {
+        for (WebSocketFrame frame : frames) {
+            blackhole.consume(frame);
+            frame.release();
+        }
+    }
+}
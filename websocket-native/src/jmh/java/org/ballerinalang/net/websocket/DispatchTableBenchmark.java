@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket;
+
+import io.ballerina.runtime.api.TypeTags;
+import io.ballerina.runtime.api.types.MethodType;
+import io.ballerina.runtime.api.types.ServiceType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.values.BObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding the remote function of a text message by scanning the methods of the service type by name, as
+ * the dispatcher did for every frame, with loading the slot of the dispatch table the connection holds.
+ * <p>
+ * The service type and its methods are proxies of the runtime interfaces, so that the benchmark does not need a
+ * compiled service. A call through a proxy costs more than the field getters of the runtime types, which would
+ * overstate the name scan, so the scan is also measured over a plain array of the names as its lower bound. The
+ * service has the remote functions of a typical service, with onTextMessage last as the ones declared before it are
+ * compared first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchTableBenchmark {
+
+    private static final String[] REMOTE_FUNCTIONS = {
+            WebSocketConstants.RESOURCE_NAME_ON_OPEN, WebSocketConstants.RESOURCE_NAME_ON_PING,
+            WebSocketConstants.RESOURCE_NAME_ON_PONG, WebSocketConstants.RESOURCE_NAME_ON_IDLE_TIMEOUT,
+            WebSocketConstants.RESOURCE_NAME_ON_ERROR, WebSocketConstants.RESOURCE_NAME_ON_CLOSE,
+            WebSocketConstants.RESOURCE_NAME_ON_BINARY_MESSAGE, WebSocketConstants.RESOURCE_NAME_ON_TEXT_MESSAGE
+    };
+
+    private ServiceType serviceType;
+    private String[] remoteFunctionNames;
+    private WebSocketDispatchTable dispatchTable;
+
+    @Setup
+    public void setUp() {
+        Type callerType = stub(Type.class, Map.of("getName", WebSocketConstants.WEBSOCKET_CALLER,
+                "getTag", TypeTags.OBJECT_TYPE_TAG));
+        Type stringType = stub(Type.class, Map.of("getName", WebSocketConstants.PARAM_TYPE_STRING,
+                "getTag", TypeTags.STRING_TAG));
+        MethodType[] methods = new MethodType[REMOTE_FUNCTIONS.length];
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = stub(MethodType.class, Map.of("getName", REMOTE_FUNCTIONS[i],
+                    "getParameterTypes", new Type[]{callerType, stringType}));
+        }
+        serviceType = stub(ServiceType.class, Map.of("getMethods", methods));
+        remoteFunctionNames = REMOTE_FUNCTIONS.clone();
+        BObject service = stub(BObject.class, Map.of("getType", serviceType));
+        dispatchTable = WebSocketDispatchTable.getDispatchTable(service);
+    }
+
+    @Benchmark
+    public MethodType methodNameScan() {
+        for (MethodType remoteFunction : serviceType.getMethods()) {
+            if (remoteFunction.getName().equals(WebSocketConstants.RESOURCE_NAME_ON_TEXT_MESSAGE)) {
+                return remoteFunction;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public int nameArrayScan() {
+        for (int i = 0; i < remoteFunctionNames.length; i++) {
+            if (remoteFunctionNames[i].equals(WebSocketConstants.RESOURCE_NAME_ON_TEXT_MESSAGE)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public WebSocketResourceBinder dispatchTableSlot() {
+        return dispatchTable.getOnTextMessage();
+    }
+
+    /**
+     * Creates an implementation of a runtime interface which returns the given values from the named methods. The
+     * other methods return null, or zero or false for primitive results.
+     */
+    private static <T> T stub(Class<T> type, Map<String, Object> results) {
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return type.getSimpleName();
+            default:
+                break;
+            }
+            Object result = results.get(method.getName());
+            if (result != null || !method.getReturnType().isPrimitive()) {
+                return result;
+            }
+            return method.getReturnType() == boolean.class ? Boolean.FALSE : defaultNumber(method.getReturnType());
+        });
+        return type.cast(stub);
+    }
+
+    private static Object defaultNumber(Class<?> type) {
+        if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0.0;
+        } else if (type == float.class) {
+            return 0.0f;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == char.class) {
+            return (char) 0;
+        }
+        return 0;
+    }
+}
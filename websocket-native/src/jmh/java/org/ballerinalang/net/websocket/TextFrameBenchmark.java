@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.CharsetUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares cutting a text message into frames as WebSocketFrameWriter does with the way it was cut before. The text
+ * used to be encoded, sliced, decoded back to a String per frame and encoded again by the transport, while the frame
+ * writer encodes it once and writes every frame as a slice of one buffer. Run it with -prof gc to compare the
+ * allocation per message as well as the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextFrameBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    private int messageSize;
+
+    @Param({"16384"})
+    private int maxFrameSize;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        // Mixes one, two and three byte code points, so that frame cuts also fall inside code points
+        StringBuilder builder = new StringBuilder(messageSize);
+        String pattern = "WebSocket frame \u00e9 \u65e5\u672c ";
+        while (builder.length() < messageSize) {
+            builder.append(pattern);
+        }
+        builder.setLength(messageSize);
+        text = builder.toString();
+    }
+
+    @Benchmark
+    public void decodedPerFrame(Blackhole blackhole) {
+        ByteBuf payload = Unpooled.copiedBuffer(text, CharsetUtil.UTF_8);
+        int length = payload.readableBytes();
+        int index = 0;
+        do {
+            int size = Math.min(maxFrameSize, length - index);
+            ByteBuf slice = payload.retainedSlice(index, size);
+            String chunk = slice.toString(CharsetUtil.UTF_8);
+            slice.release();
+            index += size;
+            WebSocketFrame frame = index == size ? new TextWebSocketFrame(index == length, 0, chunk) :
+                    new ContinuationWebSocketFrame(index == length, 0, chunk);
+            blackhole.consume(frame);
+            frame.release();
+        } while (index < length);
+        payload.release();
+    }
+
+    @Benchmark
+    public void encodedOnce(Blackhole blackhole) {
+        ByteBuf payload = ByteBufUtil.writeUtf8(PooledByteBufAllocator.DEFAULT, text);
+        consumeFrames(WebSocketFrameWriter.createFrames(payload, maxFrameSize, true), blackhole);
+        payload.release();
+    }
+
+    private static void consumeFrames(List<WebSocketFrame> frames, Blackhole blackhole) {
+        for (WebSocketFrame frame : frames) {
+            blackhole.consume(frame);
+            frame.release();
+        }
+    }
+}
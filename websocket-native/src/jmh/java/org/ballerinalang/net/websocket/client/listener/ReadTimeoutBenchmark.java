@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket.client.listener;
+
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.timeout.IdleStateHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of timing out one sync read. The read used to add an idle state handler to the pipeline and
+ * remove it when the read completed, while SyncClientConnectorListener now schedules a deadline on the event loop,
+ * records the arrival time of the frame and cancels the deadline. Each operation reads one frame through the pipeline
+ * of an embedded channel.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadTimeoutBenchmark {
+
+    private static final String IDLE_STATE_HANDLER = "idleStateHandler";
+    private static final long READ_TIMEOUT_SECONDS = 30;
+    private static final Object FRAME = new Object();
+
+    private EmbeddedChannel channel;
+    private volatile long lastFrameNanos;
+
+    @Setup
+    public void setUp() {
+        channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public Object idleStateHandlerPerRead() {
+        channel.pipeline().addFirst(IDLE_STATE_HANDLER, new IdleStateHandler(READ_TIMEOUT_SECONDS, 0, 0,
+                TimeUnit.SECONDS));
+        channel.writeInbound(FRAME);
+        channel.pipeline().remove(IDLE_STATE_HANDLER);
+        return channel.readInbound();
+    }
+
+    @Benchmark
+    public Object deadlinePerRead() {
+        ScheduledFuture<?> deadline = channel.eventLoop().schedule(this::onDeadline, READ_TIMEOUT_SECONDS,
+                TimeUnit.SECONDS);
+        channel.writeInbound(FRAME);
+        lastFrameNanos = System.nanoTime();
+        deadline.cancel(false);
+        return channel.readInbound();
+    }
+
+    private void onDeadline() {
+        lastFrameNanos = 0;
+    }
+}
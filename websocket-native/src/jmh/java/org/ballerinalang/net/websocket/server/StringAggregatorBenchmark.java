@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket.server;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building the BString of a text message with the StringAggregator of a connection against the way it was
+ * built before, with a new StringBuilder for every message and a String that was copied again into the BString. A
+ * single fragment is the common case of a message that fits in one frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringAggregatorBenchmark {
+
+    @Param({"1", "4"})
+    private int fragmentCount;
+
+    @Param({"128", "8192"})
+    private int fragmentLength;
+
+    private String[] fragments;
+    private WebSocketConnectionInfo.StringAggregator aggregator;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder(fragmentLength);
+        while (builder.length() < fragmentLength) {
+            builder.append("text message ");
+        }
+        builder.setLength(fragmentLength);
+        fragments = new String[fragmentCount];
+        for (int i = 0; i < fragmentCount; i++) {
+            fragments[i] = builder.toString();
+        }
+        aggregator = new WebSocketConnectionInfo.StringAggregator(0);
+    }
+
+    @Benchmark
+    public BString newBuilderPerMessage() {
+        StringBuilder builder = new StringBuilder();
+        for (String fragment : fragments) {
+            builder.append(fragment);
+        }
+        return StringUtils.fromString(builder.toString());
+    }
+
+    @Benchmark
+    public BString reusedAggregator() {
+        for (String fragment : fragments) {
+            aggregator.appendAggregateString(fragment);
+        }
+        BString message = aggregator.getAggregateString();
+        aggregator.resetAggregateString();
+        return message;
+    }
+}
@@ -25,6 +25,7 @@ import static io.ballerina.runtime.api.constants.RuntimeConstants.ORG_NAME_SEPAR
 import static org.ballerinalang.net.websocket.WebSocketConstants.BALLERINA_ORG;
 import static org.ballerinalang.net.websocket.WebSocketConstants.PACKAGE_WEBSOCKET;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_BINARY_MESSAGE;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_BINARY_MESSAGES;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_CLOSE;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_ERROR;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_IDLE_TIMEOUT;
@@ -32,6 +33,7 @@ import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_O
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_PING;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_PONG;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_TEXT_MESSAGE;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_TEXT_MESSAGES;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_UPGRADE;
 
 /**
@@ -44,6 +46,8 @@ public class ModuleUtils {
     private static StrandMetadata onOpenMetaData;
     private static StrandMetadata onTextMetaData;
     private static StrandMetadata onBinaryMetaData;
+    private static StrandMetadata onTextBatchMetaData;
+    private static StrandMetadata onBinaryBatchMetaData;
     private static StrandMetadata onPingMetaData;
     private static StrandMetadata onPongMetaData;
     private static StrandMetadata onCloseMetaData;
@@ -63,6 +67,10 @@ public class ModuleUtils {
                 ModuleUtils.getWebsocketModule().getVersion(), RESOURCE_NAME_ON_TEXT_MESSAGE);
         onBinaryMetaData = new StrandMetadata(BALLERINA_ORG, PACKAGE_WEBSOCKET,
                 ModuleUtils.getWebsocketModule().getVersion(), RESOURCE_NAME_ON_BINARY_MESSAGE);
+        onTextBatchMetaData = new StrandMetadata(BALLERINA_ORG, PACKAGE_WEBSOCKET,
+                ModuleUtils.getWebsocketModule().getVersion(), RESOURCE_NAME_ON_TEXT_MESSAGES);
+        onBinaryBatchMetaData = new StrandMetadata(BALLERINA_ORG, PACKAGE_WEBSOCKET,
+                ModuleUtils.getWebsocketModule().getVersion(), RESOURCE_NAME_ON_BINARY_MESSAGES);
         onPingMetaData = new StrandMetadata(BALLERINA_ORG, PACKAGE_WEBSOCKET,
                 ModuleUtils.getWebsocketModule().getVersion(), RESOURCE_NAME_ON_PING);
         onPongMetaData = new StrandMetadata(BALLERINA_ORG, PACKAGE_WEBSOCKET,
@@ -97,6 +105,14 @@ public class ModuleUtils {
         return onBinaryMetaData;
     }
 
+    public static StrandMetadata getOnTextBatchMetaData() {
+        return onTextBatchMetaData;
+    }
+
+    public static StrandMetadata getOnBinaryBatchMetaData() {
+        return onBinaryBatchMetaData;
+    }
+
     public static StrandMetadata getOnPingMetaData() {
         return onPingMetaData;
     }
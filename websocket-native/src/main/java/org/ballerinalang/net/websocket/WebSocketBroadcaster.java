@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import org.ballerinalang.net.websocket.observability.WebSocketObservabilityUtil;
+import org.ballerinalang.net.websocket.server.WebSocketConnectionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes a message to many connections. The message is encoded and split into frames once for each max frame size
+ * among the connections, and every connection is given retained duplicates of those frames, so the payload is shared
+ * instead of being copied per connection. A broadcast completes once the frames have been handed to the event loop of
+ * every connection, without waiting for them to reach a slow peer. Connections which are closed or which are not
+ * writable are skipped and reported as failures. A broadcast which fails before the frames have been handed to every
+ * connection completes exceptionally.
+ */
+public class WebSocketBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketBroadcaster.class);
+    private static final String CONNECTION_CLOSED = "Connection is closed";
+    private static final String CONNECTION_NOT_WRITABLE = "Connection is not writable";
+
+    private final String messageType;
+    private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+    private final CompletableFuture<Outcome> result = new CompletableFuture<>();
+    private final AtomicInteger pendingConnections;
+    private final AtomicInteger sentConnections = new AtomicInteger();
+
+    private WebSocketBroadcaster(int connections, String messageType) {
+        this.pendingConnections = new AtomicInteger(connections);
+        this.messageType = messageType;
+    }
+
+    /**
+     * Writes a message to each of the given connections.
+     *
+     * @param connections the connections to write to
+     * @param payload     the encoded message, which is released once it has been framed
+     * @param text        whether the payload is a text message
+     * @param messageType the message type reported to the observability metrics
+     * @return a future completed with the number of connections the message was handed to and the failures of the rest
+     */
+    public static CompletableFuture<Outcome> broadcast(List<WebSocketConnectionInfo> connections,
+            ByteBuf payload, boolean text, String messageType) {
+        WebSocketBroadcaster broadcaster = new WebSocketBroadcaster(connections.size(), messageType);
+        Map<Integer, List<WebSocketFrame>> framesBySize = new HashMap<>();
+        try {
+            for (WebSocketConnectionInfo connectionInfo : connections) {
+                List<WebSocketFrame> frames = framesBySize.computeIfAbsent(
+                        WebSocketFrameWriter.getMaxFrameSize(connectionInfo),
+                        maxFrameSize -> WebSocketFrameWriter.createFrames(payload, maxFrameSize, text));
+                broadcaster.write(connectionInfo, frames);
+            }
+        } catch (RuntimeException e) {
+            broadcaster.result.completeExceptionally(e);
+        } finally {
+            payload.release();
+            for (List<WebSocketFrame> frames : framesBySize.values()) {
+                frames.forEach(WebSocketFrame::release);
+            }
+        }
+        if (connections.isEmpty()) {
+            broadcaster.result.complete(broadcaster.createOutcome());
+        }
+        return broadcaster.result;
+    }
+
+    private void write(WebSocketConnectionInfo connectionInfo, List<WebSocketFrame> frames) {
+        String connectionId = connectionInfo.getWebSocketEndpoint()
+                .getStringValue(WebSocketConstants.LISTENER_ID_FIELD).getValue();
+        List<WebSocketFrame> duplicates = new ArrayList<>(frames.size());
+        for (WebSocketFrame frame : frames) {
+            duplicates.add(frame.retainedDuplicate());
+        }
+        try {
+            Channel channel = connectionInfo.getWebSocketConnection().getChannel();
+            WebSocketFrameWriter.runOnEventLoop(channel, () -> connectionInfo.runDataWrite(
+                    () -> writeDuplicates(connectionInfo, connectionId, channel, duplicates)));
+        } catch (IllegalAccessException | RejectedExecutionException e) {
+            duplicates.forEach(WebSocketFrame::release);
+            fail(connectionId, e);
+        }
+    }
+
+    private void writeDuplicates(WebSocketConnectionInfo connectionInfo, String connectionId, Channel channel,
+            List<WebSocketFrame> duplicates) {
+        boolean closed = connectionInfo.isCloseSent() || !channel.isActive();
+        if (closed || !channel.isWritable()) {
+            duplicates.forEach(WebSocketFrame::release);
+            fail(connectionId, new IllegalStateException(closed ? CONNECTION_CLOSED : CONNECTION_NOT_WRITABLE));
+            return;
+        }
+        ChannelFuture lastFrameFuture = null;
+        for (WebSocketFrame frame : duplicates) {
+            lastFrameFuture = channel.write(frame);
+        }
+        channel.flush();
+        if (lastFrameFuture.isDone() && !lastFrameFuture.isSuccess()) {
+            fail(connectionId, lastFrameFuture.cause());
+            return;
+        }
+        lastFrameFuture.addListener(future -> {
+            if (!future.isSuccess() && log.isDebugEnabled()) {
+                log.debug("Broadcast message could not be written to the connection {}", connectionId,
+                        future.cause());
+            }
+        });
+        WebSocketObservabilityUtil.observeSend(messageType, connectionInfo);
+        sentConnections.incrementAndGet();
+        complete();
+    }
+
+    private void fail(String connectionId, Throwable cause) {
+        failures.put(connectionId, cause);
+        complete();
+    }
+
+    private void complete() {
+        if (pendingConnections.decrementAndGet() == 0) {
+            result.complete(createOutcome());
+        }
+    }
+
+    private Outcome createOutcome() {
+        return new Outcome(sentConnections.get(), failures);
+    }
+
+    /**
+     * The outcome of a broadcast.
+     */
+    public static class Outcome {
+
+        private final int sent;
+        private final Map<String, Throwable> failures;
+
+        private Outcome(int sent, Map<String, Throwable> failures) {
+            this.sent = sent;
+            this.failures = failures;
+        }
+
+        /**
+         * Gives the number of connections the message was handed to.
+         */
+        public int getSent() {
+            return sent;
+        }
+
+        /**
+         * Gives the failures of the connections the message could not be handed to, keyed by the connection ID.
+         */
+        public Map<String, Throwable> getFailures() {
+            return failures;
+        }
+    }
+}
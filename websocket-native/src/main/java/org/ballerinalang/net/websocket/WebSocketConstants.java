@@ -49,10 +49,30 @@ public class WebSocketConstants {
     public static final BString ANNOTATION_ATTR_READ_IDLE_TIMEOUT = StringUtils.fromString("readTimeout");
     public static final BString ANNOTATION_ATTR_TIMEOUT = StringUtils.fromString("timeout");
     public static final BString ANNOTATION_ATTR_MAX_FRAME_SIZE = StringUtils.fromString("maxFrameSize");
+    public static final BString ANNOTATION_ATTR_MAX_MESSAGE_SIZE = StringUtils.fromString("maxMessageSize");
+    public static final BString ANNOTATION_ATTR_SPILL_THRESHOLD = StringUtils.fromString("spillThreshold");
+    public static final BString ANNOTATION_ATTR_DELIVER_FRAGMENTS = StringUtils.fromString("deliverFragments");
+    public static final BString ANNOTATION_ATTR_MAX_BATCH_SIZE = StringUtils.fromString("maxBatchSize");
+    public static final BString ANNOTATION_ATTR_BATCH_LINGER = StringUtils.fromString("batchLinger");
+    public static final BString ANNOTATION_ATTR_DISPATCH_WINDOW = StringUtils.fromString("dispatchWindow");
+    public static final BString ANNOTATION_ATTR_ORDERED_DISPATCH = StringUtils.fromString("orderedDispatch");
+    public static final BString ANNOTATION_ATTR_MAX_UNFLUSHED_WRITES = StringUtils.fromString("maxUnflushedWrites");
+    public static final BString ANNOTATION_ATTR_WRITE_BUFFER_HIGH_WATER_MARK =
+            StringUtils.fromString("writeBufferHighWaterMark");
+    public static final BString ANNOTATION_ATTR_WRITE_BUFFER_LOW_WATER_MARK =
+            StringUtils.fromString("writeBufferLowWaterMark");
+    public static final BString ANNOTATION_ATTR_WAIT_UNTIL_WRITABLE = StringUtils.fromString("waitUntilWritable");
+    public static final BString ANNOTATION_ATTR_MAX_QUEUED_WRITES = StringUtils.fromString("maxQueuedWrites");
+    public static final BString ANNOTATION_ATTR_OUTBOUND_DATA_WINDOW = StringUtils.fromString("outboundDataWindow");
+    public static final BString ANNOTATION_ATTR_COMPLETE_ON_EVENT_LOOP = StringUtils.fromString("completeOnEventLoop");
+    public static final BString ANNOTATION_ATTR_PREFETCH_MESSAGES = StringUtils.fromString("prefetchMessages");
+    public static final BString ANNOTATION_ATTR_ISOLATED_EVENT_LOOPS = StringUtils.fromString("isolatedEventLoops");
 
     public static final String RESOURCE_NAME_ON_OPEN = "onOpen";
     public static final String RESOURCE_NAME_ON_TEXT_MESSAGE = "onTextMessage";
     public static final String RESOURCE_NAME_ON_BINARY_MESSAGE = "onBinaryMessage";
+    public static final String RESOURCE_NAME_ON_TEXT_MESSAGES = "onTextMessages";
+    public static final String RESOURCE_NAME_ON_BINARY_MESSAGES = "onBinaryMessages";
     public static final String RESOURCE_NAME_ON_PING = "onPing";
     public static final String RESOURCE_NAME_ON_PONG = "onPong";
     public static final String RESOURCE_NAME_ON_CLOSE = "onClose";
@@ -63,15 +83,31 @@ public class WebSocketConstants {
     public static final String RESOURCE_NAME_PONG = "pong";
     public static final String WRITE_BINARY_MESSAGE = "writeBinaryMessage";
     public static final String WRITE_TEXT_MESSAGE = "writeTextMessage";
+    public static final String WRITE_TEXT_MESSAGES = "writeTextMessages";
+    public static final String WRITE_BINARY_STREAM = "writeBinaryStream";
+    public static final String WRITE_FILE = "writeFile";
+    public static final String QUEUE_TEXT_MESSAGE = "queueTextMessage";
+    public static final String QUEUE_BINARY_MESSAGE = "queueBinaryMessage";
     public static final String RESOURCE_NAME_READY = "ready";
     public static final String RESOURCE_NAME_UPGRADE = "onUpgrade";
 
     public static final String WEBSOCKET_HANDSHAKER = "WEBSOCKET_MESSAGE";
+    public static final String FLUSH_CONSOLIDATION_HANDLER = "flushConsolidationHandler";
+    public static final String WRITABILITY_HANDLER = "writabilityHandler";
+    public static final String OUTBOUND_SCHEDULER = "outboundScheduler";
+    public static final String CLOSE_FRAME_TRACKER = "closeFrameTracker";
 
     public static final String NATIVE_DATA_WEBSOCKET_CONNECTION_INFO = "NATIVE_DATA_WEBSOCKET_CONNECTION_INFO";
     public static final String NATIVE_DATA_BASE_PATH = "BASE_PATH";
     public static final String NATIVE_DATA_MAX_FRAME_SIZE = "MAX_FRAME_SIZE";
 
+    public static final String SPILLED_BINARY_MESSAGE = "SpilledBinaryMessage";
+    public static final BString SPILLED_MESSAGE_PATH_FIELD = StringUtils.fromString("path");
+    public static final BString SPILLED_MESSAGE_LENGTH_FIELD = StringUtils.fromString("length");
+    public static final String BROADCAST_OUTCOME = "BroadcastOutcome";
+    public static final BString BROADCAST_SENT_FIELD = StringUtils.fromString("sent");
+    public static final BString BROADCAST_FAILURES_FIELD = StringUtils.fromString("failures");
+
     public static final BString CLIENT_URL_CONFIG = StringUtils.fromString("url");
     public static final BString CLIENT_SERVICE_CONFIG = StringUtils.fromString("callbackService");
     public static final BString SYNC_CLIENT_SERVICE_CONFIG = StringUtils.fromString("pingPongService");
@@ -121,14 +157,18 @@ public class WebSocketConstants {
 
     public static final int STATUS_CODE_ABNORMAL_CLOSURE = 1006;
     public static final int STATUS_CODE_FOR_NO_STATUS_CODE_PRESENT = 1005;
+    public static final String MESSAGE_TOO_BIG_REASON = "Message too big";
 
     public static final int DEFAULT_MAX_FRAME_SIZE = 65536;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    public static final int DEFAULT_MAX_QUEUED_WRITES = 1024;
 
     // Warning suppression
     public static final String UNCHECKED = "unchecked";
     public static final String WEBSOCKET_CONNECTION_FAILURE = "WebSocket connection failure";
 
     public static final String WS_SERVICE_REGISTRY = "WS_SERVICE_REGISTRY";
+    public static final String WS_CONNECTION_MANAGER = "WS_CONNECTION_MANAGER";
     public static final BString SERVICE_ENDPOINT_CONFIG = StringUtils.fromString("config");
     public static final BString ENDPOINT_CONFIG_PORT = StringUtils.fromString("port");
     public static final String HTTP_SERVER_CONNECTOR = "HTTP_SERVER_CONNECTOR";
@@ -136,6 +176,7 @@ public class WebSocketConstants {
 
     public static final String PARAM_TYPE_STRING = "string";
     public static final String PARAM_TYPE_BYTE_ARR = "byte[]";
+    public static final String PARAM_TYPE_BOOLEAN = "boolean";
 
     public static final String WSS_ENDPOINT_STARTED = "[ballerina/websocket] started WSS listener ";
     public static final String WS_ENDPOINT_STARTED = "[ballerina/websocket] started WS listener ";
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket;
+
+import io.ballerina.runtime.api.types.MethodType;
+import io.ballerina.runtime.api.types.ObjectType;
+import io.ballerina.runtime.api.values.BObject;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_BINARY_MESSAGE;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_BINARY_MESSAGES;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_CLOSE;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_ERROR;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_IDLE_TIMEOUT;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_OPEN;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_PING;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_PONG;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_TEXT_MESSAGE;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_TEXT_MESSAGES;
+
+/**
+ * Immutable table of the remote functions of a WebSocket service, with one slot per event kind holding the
+ * compiled argument binder of the function. Tables are resolved once per service type and shared by every
+ * connection dispatching to a service of that type.
+ */
+public class WebSocketDispatchTable {
+
+    private static final Map<ObjectType, WebSocketDispatchTable> DISPATCH_TABLES = new ConcurrentHashMap<>();
+    private static final WebSocketDispatchTable EMPTY_TABLE = new WebSocketDispatchTable(new MethodType[0]);
+
+    private final WebSocketResourceBinder onOpen;
+    private final WebSocketResourceBinder onTextMessage;
+    private final WebSocketResourceBinder onBinaryMessage;
+    private final WebSocketResourceBinder onTextMessages;
+    private final WebSocketResourceBinder onBinaryMessages;
+    private final WebSocketResourceBinder onPing;
+    private final WebSocketResourceBinder onPong;
+    private final WebSocketResourceBinder onClose;
+    private final WebSocketResourceBinder onError;
+    private final WebSocketResourceBinder onIdleTimeout;
+
+    private WebSocketDispatchTable(MethodType[] remoteFunctions) {
+        Map<String, MethodType> remoteFunctionsByName = new HashMap<>();
+        for (MethodType remoteFunction : remoteFunctions) {
+            remoteFunctionsByName.put(remoteFunction.getName(), remoteFunction);
+        }
+        onOpen = bind(remoteFunctionsByName.get(RESOURCE_NAME_ON_OPEN), WebSocketResourceBinder::forCaller);
+        onTextMessage = bind(remoteFunctionsByName.get(RESOURCE_NAME_ON_TEXT_MESSAGE),
+                WebSocketResourceBinder::forTextMessage);
+        onBinaryMessage = bind(remoteFunctionsByName.get(RESOURCE_NAME_ON_BINARY_MESSAGE),
+                WebSocketResourceBinder::forBinaryMessageOrSpill);
+        onTextMessages = bind(remoteFunctionsByName.get(RESOURCE_NAME_ON_TEXT_MESSAGES),
+                WebSocketResourceBinder::forBatch);
+        onBinaryMessages = bind(remoteFunctionsByName.get(RESOURCE_NAME_ON_BINARY_MESSAGES),
+                WebSocketResourceBinder::forBatch);
+        onPing = bind(remoteFunctionsByName.get(RESOURCE_NAME_ON_PING), WebSocketResourceBinder::forBinaryMessage);
+        onPong = bind(remoteFunctionsByName.get(RESOURCE_NAME_ON_PONG), WebSocketResourceBinder::forBinaryMessage);
+        onClose = bind(remoteFunctionsByName.get(RESOURCE_NAME_ON_CLOSE), WebSocketResourceBinder::forClose);
+        onError = bind(remoteFunctionsByName.get(RESOURCE_NAME_ON_ERROR), WebSocketResourceBinder::forError);
+        onIdleTimeout = bind(remoteFunctionsByName.get(RESOURCE_NAME_ON_IDLE_TIMEOUT),
+                WebSocketResourceBinder::forCaller);
+    }
+
+    private static WebSocketResourceBinder bind(MethodType remoteFunction,
+            Function<MethodType, WebSocketResourceBinder> binderFactory) {
+        return remoteFunction == null ? null : binderFactory.apply(remoteFunction);
+    }
+
+    /**
+     * Returns the dispatch table of the given service, building and caching it on first use of the service type.
+     *
+     * @param service the service object, may be null for clients without a callback service
+     * @return the dispatch table of the service type
+     */
+    public static WebSocketDispatchTable getDispatchTable(BObject service) {
+        if (service == null) {
+            return EMPTY_TABLE;
+        }
+        return DISPATCH_TABLES.computeIfAbsent(service.getType(),
+                type -> new WebSocketDispatchTable(type.getMethods()));
+    }
+
+    public WebSocketResourceBinder getOnOpen() {
+        return onOpen;
+    }
+
+    public WebSocketResourceBinder getOnTextMessage() {
+        return onTextMessage;
+    }
+
+    public WebSocketResourceBinder getOnBinaryMessage() {
+        return onBinaryMessage;
+    }
+
+    public WebSocketResourceBinder getOnTextMessages() {
+        return onTextMessages;
+    }
+
+    public WebSocketResourceBinder getOnBinaryMessages() {
+        return onBinaryMessages;
+    }
+
+    public WebSocketResourceBinder getOnPing() {
+        return onPing;
+    }
+
+    public WebSocketResourceBinder getOnPong() {
+        return onPong;
+    }
+
+    public WebSocketResourceBinder getOnClose() {
+        return onClose;
+    }
+
+    public WebSocketResourceBinder getOnError() {
+        return onError;
+    }
+
+    public WebSocketResourceBinder getOnIdleTimeout() {
+        return onIdleTimeout;
+    }
+}
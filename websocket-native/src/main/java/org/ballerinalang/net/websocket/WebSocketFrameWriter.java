@@ -0,0 +1,519 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.concurrent.PromiseCombiner;
+import io.netty.util.concurrent.PromiseNotifier;
+import org.ballerinalang.net.transport.contract.websocket.WebSocketConnection;
+import org.ballerinalang.net.websocket.server.OutboundScheduler;
+import org.ballerinalang.net.websocket.server.WebSocketConnectionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Writes outbound data messages, splitting them into frames of at most the max frame size of the endpoint. A message
+ * which fits in a single frame is pushed through the connection as is. A larger message is encoded once into a
+ * pooled buffer, or wrapped in the case of binary data, and its frames are written as retained slices of that
+ * buffer, all within one task on the event loop of the connection, so that the frames of different messages are
+ * never interleaved. While a binary message is being written chunk by chunk, the other data messages of the
+ * connection are held back by the connection info until it ends. Frames written to the channel directly do not pass
+ * the state checks of the transport connection, so a message is failed instead of written once a close frame has
+ * been sent on the connection.
+ */
+public class WebSocketFrameWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketFrameWriter.class);
+    private static final String CONNECTION_CLOSED = "Connection is closed";
+    private static final int FILE_CHUNK_SIZE = 64 * 1024;
+
+    private WebSocketFrameWriter() {
+    }
+
+    /**
+     * Writes a text message. The frames are cut on code point boundaries so that each frame carries valid UTF-8.
+     *
+     * @param connectionInfo the connection to write to
+     * @param text           the text message
+     * @return a future which completes when all the frames of the message have been written
+     * @throws IllegalAccessException if the connection is not available
+     */
+    public static ChannelFuture writeText(WebSocketConnectionInfo connectionInfo, String text)
+            throws IllegalAccessException {
+        WebSocketConnection webSocketConnection = connectionInfo.getWebSocketConnection();
+        Channel channel = webSocketConnection.getChannel();
+        int maxFrameSize = getMaxFrameSize(connectionInfo);
+        ChannelPromise promise = channel.newPromise();
+        // A UTF-16 char never takes more than three bytes in UTF-8, so such text always fits in one frame
+        if ((long) text.length() * 3 <= maxFrameSize || ByteBufUtil.utf8Bytes(text) <= maxFrameSize) {
+            runDataWrite(connectionInfo, channel, () -> push(() -> webSocketConnection.pushText(text, true), promise));
+            return promise;
+        }
+        ByteBuf payload = ByteBufUtil.writeUtf8(channel.alloc(), text);
+        runDataWrite(connectionInfo, channel,
+                () -> writeMessage(connectionInfo, channel, payload, maxFrameSize, true, promise));
+        return promise;
+    }
+
+    /**
+     * Writes an urgent text message. If the frames of the connection are scheduled, the message is sent ahead of the
+     * normal messages which have not started yet. Otherwise it is written as any other message.
+     *
+     * @param connectionInfo the connection to write to
+     * @param text           the text message
+     * @return a future which completes when all the frames of the message have been written
+     * @throws IllegalAccessException if the connection is not available
+     */
+    public static ChannelFuture writeUrgentText(WebSocketConnectionInfo connectionInfo, String text)
+            throws IllegalAccessException {
+        Channel channel = connectionInfo.getWebSocketConnection().getChannel();
+        OutboundScheduler scheduler = OutboundScheduler.get(channel);
+        if (scheduler == null) {
+            return writeText(connectionInfo, text);
+        }
+        return writeUrgentMessage(connectionInfo, scheduler, channel, ByteBufUtil.writeUtf8(channel.alloc(), text),
+                getMaxFrameSize(connectionInfo), true);
+    }
+
+    /**
+     * Writes a sequence of text messages. The frames of all the messages are written before the channel is flushed
+     * once, so a burst of small messages costs a single flush instead of one per message.
+     *
+     * @param connectionInfo the connection to write to
+     * @param texts          the text messages, in the order they are sent
+     * @return a future which completes when all the frames of the messages have been written
+     * @throws IllegalAccessException if the connection is not available
+     */
+    public static ChannelFuture writeTexts(WebSocketConnectionInfo connectionInfo, String[] texts)
+            throws IllegalAccessException {
+        Channel channel = connectionInfo.getWebSocketConnection().getChannel();
+        int maxFrameSize = getMaxFrameSize(connectionInfo);
+        ChannelPromise promise = channel.newPromise();
+        runDataWrite(connectionInfo, channel, () -> {
+            if (failIfClosed(connectionInfo, channel, promise)) {
+                return;
+            }
+            PromiseCombiner promiseCombiner = new PromiseCombiner(channel.eventLoop());
+            for (String text : texts) {
+                writeFrames(channel, ByteBufUtil.writeUtf8(channel.alloc(), text), maxFrameSize, true,
+                        promiseCombiner);
+            }
+            channel.flush();
+            promiseCombiner.finish(promise);
+        });
+        return promise;
+    }
+
+    /**
+     * Writes a binary message. A message larger than a frame is wrapped without copying and its frames are written
+     * as slices of the given array.
+     *
+     * @param connectionInfo the connection to write to
+     * @param data           the binary message, which must not be modified until the returned future completes
+     * @return a future which completes when all the frames of the message have been written
+     * @throws IllegalAccessException if the connection is not available
+     */
+    public static ChannelFuture writeBinary(WebSocketConnectionInfo connectionInfo, byte[] data)
+            throws IllegalAccessException {
+        WebSocketConnection webSocketConnection = connectionInfo.getWebSocketConnection();
+        Channel channel = webSocketConnection.getChannel();
+        int maxFrameSize = getMaxFrameSize(connectionInfo);
+        ChannelPromise promise = channel.newPromise();
+        if (data.length <= maxFrameSize) {
+            runDataWrite(connectionInfo, channel,
+                    () -> push(() -> webSocketConnection.pushBinary(ByteBuffer.wrap(data), true), promise));
+            return promise;
+        }
+        ByteBuf payload = Unpooled.wrappedBuffer(data);
+        runDataWrite(connectionInfo, channel,
+                () -> writeMessage(connectionInfo, channel, payload, maxFrameSize, false, promise));
+        return promise;
+    }
+
+    /**
+     * Writes an urgent binary message. If the frames of the connection are scheduled, the message is sent ahead of
+     * the normal messages which have not started yet. Otherwise it is written as any other message.
+     *
+     * @param connectionInfo the connection to write to
+     * @param data           the binary message, which must not be modified until the returned future completes
+     * @return a future which completes when all the frames of the message have been written
+     * @throws IllegalAccessException if the connection is not available
+     */
+    public static ChannelFuture writeUrgentBinary(WebSocketConnectionInfo connectionInfo, byte[] data)
+            throws IllegalAccessException {
+        Channel channel = connectionInfo.getWebSocketConnection().getChannel();
+        OutboundScheduler scheduler = OutboundScheduler.get(channel);
+        if (scheduler == null) {
+            return writeBinary(connectionInfo, data);
+        }
+        return writeUrgentMessage(connectionInfo, scheduler, channel, Unpooled.wrappedBuffer(data),
+                getMaxFrameSize(connectionInfo), false);
+    }
+
+    private static ChannelFuture writeUrgentMessage(WebSocketConnectionInfo connectionInfo,
+            OutboundScheduler scheduler, Channel channel, ByteBuf payload, int maxFrameSize, boolean text) {
+        ChannelPromise promise = channel.newPromise();
+        runDataWrite(connectionInfo, channel, () -> {
+            if (failIfClosed(connectionInfo, channel, promise)) {
+                payload.release();
+                return;
+            }
+            PromiseCombiner promiseCombiner = new PromiseCombiner(channel.eventLoop());
+            try {
+                for (WebSocketFrame frame : createFrames(payload, maxFrameSize, text)) {
+                    promiseCombiner.add(scheduler.writeUrgent(frame));
+                }
+            } finally {
+                payload.release();
+            }
+            channel.flush();
+            promiseCombiner.finish(promise);
+        });
+        return promise;
+    }
+
+    /**
+     * Writes a chunk of a binary message whose size is not known upfront. The chunk is written as one or more
+     * fragments, the first of which is a binary frame if the chunk starts the message and a continuation frame
+     * otherwise. The other data messages of the connection are held back from the chunk which starts the message
+     * until the chunk which ends it has been written.
+     *
+     * @param connectionInfo the connection to write to
+     * @param data           the chunk, which must not be modified until the returned future completes
+     * @param first          whether the chunk starts the message
+     * @param last           whether the chunk ends the message
+     * @return a future which completes when all the frames of the chunk have been written
+     * @throws IllegalAccessException if the connection is not available
+     */
+    public static ChannelFuture writeBinaryFragment(WebSocketConnectionInfo connectionInfo, byte[] data,
+            boolean first, boolean last) throws IllegalAccessException {
+        Channel channel = connectionInfo.getWebSocketConnection().getChannel();
+        int maxFrameSize = getMaxFrameSize(connectionInfo);
+        ByteBuf payload = Unpooled.wrappedBuffer(data);
+        ChannelPromise promise = channel.newPromise();
+        runOnEventLoop(channel, () -> connectionInfo.runFragmentWrite(first, () -> {
+            if (failIfClosed(connectionInfo, channel, promise)) {
+                payload.release();
+                return;
+            }
+            PromiseCombiner promiseCombiner = new PromiseCombiner(channel.eventLoop());
+            writeFrames(channel, payload, maxFrameSize, false, first, last, promiseCombiner);
+            channel.flush();
+            promiseCombiner.finish(promise);
+            if (last) {
+                connectionInfo.endFragmentedMessage();
+            }
+        }));
+        return promise;
+    }
+
+    /**
+     * Writes a range of a file as a binary message. The range is read chunk by chunk into pooled direct buffers, and
+     * each chunk is written as fragments of the message once the previous one has been written, so only one chunk is
+     * held in memory at a time and its buffer goes back to the pool once its frames are written. The other data
+     * messages of the connection are held back until the message ends. If a chunk can not be read once the message
+     * has started, the connection is closed with the status code 1011 as the message can not be completed.
+     *
+     * @param connectionInfo the connection to write to
+     * @param path           the file to write
+     * @param offset         the position of the first byte of the range
+     * @param length         the length of the range, or a negative value for the rest of the file
+     * @param fragmentSize   the maximum payload size of a frame, or a value less than one for the max frame size of
+     *                       the endpoint
+     * @return a future which completes when all the frames of the message have been written
+     * @throws IOException            if the file can not be read or the range does not lie within the file
+     * @throws IllegalAccessException if the connection is not available
+     */
+    public static ChannelFuture writeFile(WebSocketConnectionInfo connectionInfo, Path path, long offset, long length,
+            int fragmentSize) throws IOException, IllegalAccessException {
+        WebSocketConnection webSocketConnection = connectionInfo.getWebSocketConnection();
+        Channel channel = webSocketConnection.getChannel();
+        int maxFrameSize = fragmentSize > 0 ? fragmentSize : getMaxFrameSize(connectionInfo);
+        FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+        long end;
+        try {
+            long size = fileChannel.size();
+            if (offset < 0 || offset > size || length > size - offset) {
+                throw new IOException("Range of " + length + " bytes at " + offset + " does not lie within " + path
+                        + " of " + size + " bytes");
+            }
+            end = length < 0 ? size : offset + length;
+        } catch (IOException e) {
+            fileChannel.close();
+            throw e;
+        }
+        FileRangeWriter writer = new FileRangeWriter(connectionInfo, webSocketConnection, path, fileChannel, offset,
+                end, maxFrameSize);
+        runOnEventLoop(channel, () -> connectionInfo.runFragmentWrite(true, writer::writeNextChunk));
+        return writer.promise;
+    }
+
+    private static void writeMessage(WebSocketConnectionInfo connectionInfo, Channel channel, ByteBuf payload,
+            int maxFrameSize, boolean text, ChannelPromise promise) {
+        if (failIfClosed(connectionInfo, channel, promise)) {
+            payload.release();
+            return;
+        }
+        PromiseCombiner promiseCombiner = new PromiseCombiner(channel.eventLoop());
+        writeFrames(channel, payload, maxFrameSize, text, promiseCombiner);
+        channel.flush();
+        promiseCombiner.finish(promise);
+    }
+
+    /**
+     * Fails a write if a close frame has been sent on the connection or the connection is no longer active. This must
+     * be called from the event loop of the connection.
+     *
+     * @return true if the write has been failed
+     */
+    private static boolean failIfClosed(WebSocketConnectionInfo connectionInfo, Channel channel,
+            ChannelPromise promise) {
+        if (!connectionInfo.isCloseSent() && channel.isActive()) {
+            return false;
+        }
+        promise.setFailure(new IllegalStateException(CONNECTION_CLOSED));
+        return true;
+    }
+
+    /**
+     * Writes the frames of a message without flushing them and releases the payload.
+     */
+    private static void writeFrames(Channel channel, ByteBuf payload, int maxFrameSize, boolean text,
+            PromiseCombiner promiseCombiner) {
+        writeFrames(channel, payload, maxFrameSize, text, true, true, promiseCombiner);
+    }
+
+    private static void writeFrames(Channel channel, ByteBuf payload, int maxFrameSize, boolean text, boolean first,
+            boolean last, PromiseCombiner promiseCombiner) {
+        try {
+            for (WebSocketFrame frame : createFrames(payload, maxFrameSize, text, first, last)) {
+                promiseCombiner.add(channel.write(frame));
+            }
+        } finally {
+            payload.release();
+        }
+    }
+
+    /**
+     * Splits a message into frames of at most the given size. Each frame holds a retained slice of the payload, so
+     * the payload itself is left to the caller to release.
+     *
+     * @param payload      the encoded message
+     * @param maxFrameSize the maximum payload size of a frame
+     * @param text         whether the message is a text message, whose frames are cut on code point boundaries
+     * @return the frames of the message in order
+     */
+    static List<WebSocketFrame> createFrames(ByteBuf payload, int maxFrameSize, boolean text) {
+        return createFrames(payload, maxFrameSize, text, true, true);
+    }
+
+    private static List<WebSocketFrame> createFrames(ByteBuf payload, int maxFrameSize, boolean text, boolean first,
+            boolean last) {
+        List<WebSocketFrame> frames = new ArrayList<>();
+        int index = payload.readerIndex();
+        int end = payload.writerIndex();
+        do {
+            int cut = Math.min(index + maxFrameSize, end);
+            if (text) {
+                cut = findCodePointBoundary(payload, index, cut, end);
+            }
+            boolean finalFragment = last && cut == end;
+            ByteBuf slice = payload.retainedSlice(index, cut - index);
+            if (!first || !frames.isEmpty()) {
+                frames.add(new ContinuationWebSocketFrame(finalFragment, 0, slice));
+            } else if (text) {
+                frames.add(new TextWebSocketFrame(finalFragment, 0, slice));
+            } else {
+                frames.add(new BinaryWebSocketFrame(finalFragment, 0, slice));
+            }
+            index = cut;
+        } while (index < end);
+        return frames;
+    }
+
+    /**
+     * Moves a frame boundary back to the start of the code point it falls in. If a single code point is larger than
+     * the frame, the boundary is moved past it instead, as a code point can not be split across frames.
+     */
+    private static int findCodePointBoundary(ByteBuf payload, int start, int cut, int end) {
+        int boundary = cut;
+        while (boundary < end && boundary > start && isContinuationByte(payload.getByte(boundary))) {
+            boundary--;
+        }
+        if (boundary > start) {
+            return boundary;
+        }
+        boundary = cut;
+        while (boundary < end && isContinuationByte(payload.getByte(boundary))) {
+            boundary++;
+        }
+        return boundary;
+    }
+
+    private static boolean isContinuationByte(byte value) {
+        return (value & 0xC0) == 0x80;
+    }
+
+    /**
+     * Pushes a single frame message through the transport connection, which checks the state of the connection, and
+     * completes the promise with the result.
+     */
+    private static void push(Supplier<ChannelFuture> push, ChannelPromise promise) {
+        try {
+            push.get().addListener(new PromiseNotifier<>(promise));
+        } catch (RuntimeException e) {
+            promise.setFailure(e);
+        }
+    }
+
+    /**
+     * Runs the write of a complete data message on the event loop of the connection, once no fragmented message is
+     * being written to it.
+     */
+    private static void runDataWrite(WebSocketConnectionInfo connectionInfo, Channel channel, Runnable write) {
+        runOnEventLoop(channel, () -> connectionInfo.runDataWrite(write));
+    }
+
+    static void runOnEventLoop(Channel channel, Runnable task) {
+        if (channel.eventLoop().inEventLoop()) {
+            task.run();
+        } else {
+            channel.eventLoop().execute(task);
+        }
+    }
+
+    static int getMaxFrameSize(WebSocketConnectionInfo connectionInfo) {
+        return (int) connectionInfo.getWebSocketEndpoint().getNativeData(WebSocketConstants.NATIVE_DATA_MAX_FRAME_SIZE);
+    }
+
+    /**
+     * Writes the chunks of a range of a file one after the other on the event loop of the connection.
+     */
+    private static class FileRangeWriter {
+
+        private final WebSocketConnectionInfo connectionInfo;
+        private final WebSocketConnection webSocketConnection;
+        private final Channel channel;
+        private final Path path;
+        private final FileChannel fileChannel;
+        private final long end;
+        private final int maxFrameSize;
+        private final int chunkSize;
+        private final ChannelPromise promise;
+        private long position;
+        private boolean first = true;
+
+        private FileRangeWriter(WebSocketConnectionInfo connectionInfo, WebSocketConnection webSocketConnection,
+                Path path, FileChannel fileChannel, long offset, long end, int maxFrameSize) {
+            this.connectionInfo = connectionInfo;
+            this.webSocketConnection = webSocketConnection;
+            this.channel = webSocketConnection.getChannel();
+            this.path = path;
+            this.fileChannel = fileChannel;
+            this.position = offset;
+            this.end = end;
+            this.maxFrameSize = maxFrameSize;
+            // A whole number of frames, so that only the last frame of the message is shorter than the others
+            this.chunkSize = maxFrameSize >= FILE_CHUNK_SIZE ? maxFrameSize
+                    : FILE_CHUNK_SIZE / maxFrameSize * maxFrameSize;
+            this.promise = channel.newPromise();
+        }
+
+        private void writeNextChunk() {
+            if (failIfClosed(connectionInfo, channel, promise)) {
+                finish();
+                return;
+            }
+            int size = (int) Math.min(end - position, chunkSize);
+            ByteBuf chunk = channel.alloc().directBuffer(size);
+            try {
+                readChunk(chunk, size);
+            } catch (IOException e) {
+                chunk.release();
+                if (!first) {
+                    webSocketConnection.terminateConnection(1011, "Message could not be sent");
+                }
+                promise.setFailure(e);
+                finish();
+                return;
+            }
+            position += size;
+            boolean last = position == end;
+            PromiseCombiner promiseCombiner = new PromiseCombiner(channel.eventLoop());
+            writeFrames(channel, chunk, maxFrameSize, false, first, last, promiseCombiner);
+            channel.flush();
+            first = false;
+            if (last) {
+                promiseCombiner.finish(promise);
+                finish();
+                return;
+            }
+            ChannelPromise chunkPromise = channel.newPromise();
+            chunkPromise.addListener(future -> {
+                if (future.isSuccess()) {
+                    writeNextChunk();
+                } else {
+                    promise.setFailure(future.cause());
+                    finish();
+                }
+            });
+            promiseCombiner.finish(chunkPromise);
+        }
+
+        private void readChunk(ByteBuf chunk, int size) throws IOException {
+            while (chunk.readableBytes() < size) {
+                int read = chunk.writeBytes(fileChannel, position + chunk.readableBytes(),
+                        size - chunk.readableBytes());
+                if (read < 0) {
+                    throw new IOException(path + " ended before the range of the message was read");
+                }
+            }
+        }
+
+        /**
+         * Closes the file and ends the message, so that the data writes held back by it are run.
+         */
+        private void finish() {
+            try {
+                fileChannel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close the file {}", path, e);
+            }
+            connectionInfo.endFragmentedMessage();
+        }
+    }
+}
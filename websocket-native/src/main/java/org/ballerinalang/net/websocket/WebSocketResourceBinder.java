@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket;
+
+import io.ballerina.runtime.api.types.MethodType;
+import io.ballerina.runtime.api.types.Type;
+import org.ballerinalang.net.http.HttpConstants;
+
+import java.util.function.ToIntFunction;
+
+import static io.ballerina.runtime.api.TypeTags.ARRAY_TAG;
+import static io.ballerina.runtime.api.TypeTags.BOOLEAN_TAG;
+import static io.ballerina.runtime.api.TypeTags.ERROR_TAG;
+import static io.ballerina.runtime.api.TypeTags.INT_TAG;
+import static io.ballerina.runtime.api.TypeTags.OBJECT_TYPE_TAG;
+import static io.ballerina.runtime.api.TypeTags.RECORD_TYPE_TAG;
+import static io.ballerina.runtime.api.TypeTags.STRING_TAG;
+import static io.ballerina.runtime.api.TypeTags.UNION_TAG;
+import static org.ballerinalang.net.websocket.WebSocketConstants.PARAM_TYPE_BOOLEAN;
+import static org.ballerinalang.net.websocket.WebSocketConstants.PARAM_TYPE_STRING;
+
+/**
+ * Argument binder of a remote function or resource. The parameter types of the function are inspected once when
+ * the binder is built and reduced to the index of the dispatch source each parameter is filled from, so binding
+ * the arguments of a message is a plain copy into a right-sized argument array.
+ */
+public class WebSocketResourceBinder {
+
+    private static final int NOT_BOUND = -1;
+    private static final int FIRST_SOURCE = 0;
+    private static final int SECOND_SOURCE = 1;
+    private static final int THIRD_SOURCE = 2;
+
+    private final MethodType resource;
+    private final int[] sourceIndexes;
+    private final boolean payloadBound;
+    private boolean spilledPayloadAccepted;
+
+    private WebSocketResourceBinder(MethodType resource, int[] sourceIndexes) {
+        this.resource = resource;
+        this.sourceIndexes = sourceIndexes;
+        boolean bound = false;
+        for (int sourceIndex : sourceIndexes) {
+            bound |= sourceIndex == SECOND_SOURCE;
+        }
+        this.payloadBound = bound;
+    }
+
+    /**
+     * Binds the caller, the text payload and the final fragment flag of {@code onTextMessage}.
+     */
+    static WebSocketResourceBinder forTextMessage(MethodType resource) {
+        return compile(resource, param -> {
+            switch (param.getName()) {
+            case WebSocketConstants.WEBSOCKET_CALLER:
+                return FIRST_SOURCE;
+            case PARAM_TYPE_STRING:
+                return SECOND_SOURCE;
+            case PARAM_TYPE_BOOLEAN:
+                return THIRD_SOURCE;
+            default:
+                return NOT_BOUND;
+            }
+        });
+    }
+
+    /**
+     * Binds the caller and the byte array payload of {@code onBinaryMessage}, {@code onPing} and {@code onPong}.
+     */
+    static WebSocketResourceBinder forBinaryMessage(MethodType resource) {
+        return forTaggedPayload(resource, ARRAY_TAG);
+    }
+
+    /**
+     * Binds the caller, the payload and the final fragment flag of {@code onBinaryMessage}. Besides a byte array,
+     * the payload parameter may be typed to accept a {@code SpilledBinaryMessage}, in which case messages above the
+     * spill threshold are handed over as a file-backed record.
+     */
+    static WebSocketResourceBinder forBinaryMessageOrSpill(MethodType resource) {
+        boolean[] spillable = {false};
+        WebSocketResourceBinder binder = compile(resource, param -> {
+            switch (param.getTag()) {
+            case OBJECT_TYPE_TAG:
+                return FIRST_SOURCE;
+            case ARRAY_TAG:
+                return SECOND_SOURCE;
+            case RECORD_TYPE_TAG:
+            case UNION_TAG:
+                spillable[0] = true;
+                return SECOND_SOURCE;
+            case BOOLEAN_TAG:
+                return THIRD_SOURCE;
+            default:
+                return NOT_BOUND;
+            }
+        });
+        binder.spilledPayloadAccepted = spillable[0];
+        return binder;
+    }
+
+    /**
+     * Binds the caller and the array of messages of {@code onTextMessages} and {@code onBinaryMessages}.
+     */
+    static WebSocketResourceBinder forBatch(MethodType resource) {
+        return forTaggedPayload(resource, ARRAY_TAG);
+    }
+
+    /**
+     * Binds the caller and the error of {@code onError}.
+     */
+    static WebSocketResourceBinder forError(MethodType resource) {
+        return forTaggedPayload(resource, ERROR_TAG);
+    }
+
+    /**
+     * Binds the caller, the status code and the reason of {@code onClose}.
+     */
+    static WebSocketResourceBinder forClose(MethodType resource) {
+        return compile(resource, param -> {
+            switch (param.getTag()) {
+            case OBJECT_TYPE_TAG:
+                return FIRST_SOURCE;
+            case INT_TAG:
+                return SECOND_SOURCE;
+            case STRING_TAG:
+                return THIRD_SOURCE;
+            default:
+                return NOT_BOUND;
+            }
+        });
+    }
+
+    /**
+     * Binds the caller, which is the only argument of {@code onOpen} and {@code onIdleTimeout}.
+     */
+    static WebSocketResourceBinder forCaller(MethodType resource) {
+        int[] sourceIndexes = new int[resource.getParameterTypes().length];
+        for (int i = 0; i < sourceIndexes.length; i++) {
+            sourceIndexes[i] = i == 0 ? FIRST_SOURCE : NOT_BOUND;
+        }
+        return new WebSocketResourceBinder(resource, sourceIndexes);
+    }
+
+    /**
+     * Binds the request and the path parameters of the upgrade resource. The request is the first source and the
+     * path parameters follow it in the order they appear in the resource path.
+     */
+    public static WebSocketResourceBinder forUpgrade(MethodType resource) {
+        int[] nextPathParam = {SECOND_SOURCE};
+        return compile(resource, param -> {
+            switch (param.getName()) {
+            case HttpConstants.REQUEST:
+                return FIRST_SOURCE;
+            case PARAM_TYPE_STRING:
+                return nextPathParam[0]++;
+            default:
+                return NOT_BOUND;
+            }
+        });
+    }
+
+    private static WebSocketResourceBinder forTaggedPayload(MethodType resource, int payloadTag) {
+        return compile(resource, param -> {
+            int tag = param.getTag();
+            if (tag == OBJECT_TYPE_TAG) {
+                return FIRST_SOURCE;
+            }
+            return tag == payloadTag ? SECOND_SOURCE : NOT_BOUND;
+        });
+    }
+
+    private static WebSocketResourceBinder compile(MethodType resource, ToIntFunction<Type> sourceOf) {
+        Type[] parameterTypes = resource.getParameterTypes();
+        int[] sourceIndexes = new int[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            sourceIndexes[i] = sourceOf.applyAsInt(parameterTypes[i]);
+        }
+        return new WebSocketResourceBinder(resource, sourceIndexes);
+    }
+
+    /**
+     * Creates the argument array of the function. Each parameter is followed by a flag marking whether it is
+     * provided. Parameters that are not bound to any source are flagged as not provided, so that the runtime
+     * defaults them.
+     *
+     * @param sources the values available for the event, in the order expected by the binder
+     * @return the argument array to invoke the function with
+     */
+    public Object[] bind(Object... sources) {
+        Object[] bValues = new Object[sourceIndexes.length * 2];
+        for (int i = 0; i < sourceIndexes.length; i++) {
+            int sourceIndex = sourceIndexes[i];
+            if (sourceIndex != NOT_BOUND && sourceIndex < sources.length) {
+                bValues[i * 2] = sources[sourceIndex];
+                bValues[i * 2 + 1] = true;
+            } else {
+                bValues[i * 2 + 1] = false;
+            }
+        }
+        return bValues;
+    }
+
+    /**
+     * Checks whether the function declares the payload parameter, so that payloads which are costly to create can
+     * be skipped when the function does not use them.
+     */
+    public boolean isPayloadBound() {
+        return payloadBound;
+    }
+
+    /**
+     * Checks whether the payload parameter accepts a {@code SpilledBinaryMessage} in place of a byte array.
+     */
+    public boolean isSpilledPayloadAccepted() {
+        return spilledPayloadAccepted;
+    }
+
+    public MethodType getResource() {
+        return resource;
+    }
+
+    public String getName() {
+        return resource.getName();
+    }
+}
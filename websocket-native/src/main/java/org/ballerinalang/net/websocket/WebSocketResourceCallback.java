@@ -21,15 +21,15 @@ import io.ballerina.runtime.api.async.Callback;
 import io.ballerina.runtime.api.values.BArray;
 import io.ballerina.runtime.api.values.BError;
 import io.ballerina.runtime.api.values.BString;
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
-import io.netty.util.CharsetUtil;
+import io.netty.channel.EventLoop;
 import io.netty.util.concurrent.ImmediateEventExecutor;
 import io.netty.util.concurrent.PromiseCombiner;
 import org.ballerinalang.net.transport.contract.websocket.WebSocketConnection;
 import org.ballerinalang.net.websocket.observability.WebSocketObservabilityConstants;
 import org.ballerinalang.net.websocket.observability.WebSocketObservabilityUtil;
+import org.ballerinalang.net.websocket.server.SpillFile;
 import org.ballerinalang.net.websocket.server.WebSocketConnectionInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,10 +38,6 @@ import java.nio.ByteBuffer;
 
 import static org.ballerinalang.net.websocket.WebSocketConstants.INITIALIZED_BY_SERVICE;
 import static org.ballerinalang.net.websocket.WebSocketResourceDispatcher.dispatchOnError;
-import static org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector.fromByteArray;
-import static org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector.fromText;
-import static org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector.getByteChunk;
-import static org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector.release;
 
 /**
  * Callback impl for web socket.
@@ -51,26 +47,50 @@ public class WebSocketResourceCallback implements Callback {
     private final WebSocketConnection webSocketConnection;
     private final WebSocketConnectionInfo connectionInfo;
     private final String resource;
+    private final SpillFile spilledMessage;
     private static final Logger log = LoggerFactory.getLogger(WebSocketResourceCallback.class);
 
     WebSocketResourceCallback(WebSocketConnectionInfo webSocketConnectionInfo, String resource)
             throws IllegalAccessException {
+        this(webSocketConnectionInfo, resource, null);
+    }
+
+    /**
+     * @param spilledMessage the spill file of the dispatched message, which is deleted once the resource returns
+     */
+    WebSocketResourceCallback(WebSocketConnectionInfo webSocketConnectionInfo, String resource,
+            SpillFile spilledMessage) throws IllegalAccessException {
         this.connectionInfo = webSocketConnectionInfo;
         this.webSocketConnection = connectionInfo.getWebSocketConnection();
         this.resource = resource;
+        this.spilledMessage = spilledMessage;
     }
 
+    /**
+     * Completes the invocation. If the connection completes invocations on its event loop, this is done in a single
+     * task on the event loop, so that the returned message is written and the next frame is requested without
+     * handing each operation over to the event loop separately.
+     */
     @Override
     public void notifySuccess(Object result) {
-        PromiseCombiner promiseCombiner = new PromiseCombiner(ImmediateEventExecutor.INSTANCE);
+        deleteSpilledMessage();
+        EventLoop eventLoop = webSocketConnection.getChannel().eventLoop();
+        if (!connectionInfo.isCompleteOnEventLoop() || eventLoop.inEventLoop()) {
+            complete(result);
+        } else {
+            eventLoop.execute(() -> complete(result));
+        }
+    }
+
+    private void complete(Object result) {
         if (result instanceof BArray && resource.equals(WebSocketConstants.RESOURCE_NAME_ON_PING)) {
-            sendPing((BArray) result, promiseCombiner);
+            sendPing((BArray) result, new PromiseCombiner(ImmediateEventExecutor.INSTANCE));
         } else if (result instanceof BString) {
-            sendTextMessage((BString) result, promiseCombiner);
+            sendTextMessage((BString) result);
         } else if (result instanceof BArray) {
-            sendBinaryMessage((BArray) result, promiseCombiner);
+            sendBinaryMessage((BArray) result);
         } else {
-            webSocketConnection.readNextFrame();
+            readNextFrame();
         }
     }
 
@@ -82,116 +102,90 @@ public class WebSocketResourceCallback implements Callback {
             promiseCombiner.finish(connectionInfo.getWebSocketConnection().getChannel().newPromise()
                     .addListener((ChannelFutureListener) future -> {
                         if (future.isSuccess()) {
-                            webSocketConnection.readNextFrame();
+                            readNextFrame();
                         } else {
+                            releaseOnFailure();
                             dispatchOnError(connectionInfo, future.cause(),
                                     connectionInfo.getWebSocketEndpoint().get(INITIALIZED_BY_SERVICE).equals(true));
                         }
                     }));
         } catch (Exception e) {
             log.error("Error occurred when pinging", e);
+            releaseOnFailure();
             dispatchOnError(connectionInfo, e,
                     connectionInfo.getWebSocketEndpoint().get(INITIALIZED_BY_SERVICE).equals(true));
         }
     }
 
-    private void sendBinaryMessage(BArray result, PromiseCombiner promiseCombiner) {
-        ByteBuf byteBuf = null;
-        ByteBuf lastSlice = null;
+    private void sendBinaryMessage(BArray result) {
         try {
-            byteBuf = fromByteArray(ByteBuffer.wrap(result.getBytes()));
-            int noBytes = byteBuf.readableBytes();
-            int index = 0;
-            final int size = (int) connectionInfo.getWebSocketEndpoint()
-                    .getNativeData(WebSocketConstants.NATIVE_DATA_MAX_FRAME_SIZE);
-            while (index < noBytes - size) {
-                ByteBuf slice = null;
-                try {
-                    slice = byteBuf.retainedSlice(index, size);
-                    byte[] chunk = getByteChunk(size, slice);
-                    ChannelFuture future = connectionInfo.getWebSocketConnection()
-                            .pushBinary(ByteBuffer.wrap(chunk), false);
-                    promiseCombiner.add(future);
-                    index += size;
-                } finally {
-                    release(slice);
+            ChannelFuture future = WebSocketFrameWriter.writeBinary(connectionInfo, result.getBytes());
+            future.addListener((ChannelFutureListener) channelFuture -> {
+                if (channelFuture.isSuccess()) {
+                    WebSocketObservabilityUtil
+                            .observeSend(WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY, connectionInfo);
+                    connectionInfo.completeWhenWritable(this::readNextFrame);
+                } else {
+                    releaseOnFailure();
+                    dispatchOnError(connectionInfo, channelFuture.cause(), true);
                 }
-            }
-            lastSlice = byteBuf.retainedSlice(index, noBytes - index);
-            byte[] finalChunk = getByteChunk(noBytes - index, lastSlice);
-            ChannelFuture webSocketChannelFuture = connectionInfo.getWebSocketConnection()
-                    .pushBinary(ByteBuffer.wrap(finalChunk), true);
-            promiseCombiner.add(webSocketChannelFuture);
-            promiseCombiner.finish(connectionInfo.getWebSocketConnection().getChannel().newPromise()
-                    .addListener((ChannelFutureListener) future -> {
-                        if (future.isSuccess()) {
-                            WebSocketObservabilityUtil
-                                    .observeSend(WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY, connectionInfo);
-                            webSocketConnection.readNextFrame();
-                        } else {
-                            dispatchOnError(connectionInfo, future.cause(), true);
-                        }
-                    }));
+            });
         } catch (IllegalAccessException | IllegalStateException e) {
             log.error("Error occurred when pushing binary data", e);
+            releaseOnFailure();
             dispatchOnError(connectionInfo, e, true);
-        } finally {
-            release(byteBuf);
-            release(lastSlice);
         }
     }
 
-    private void sendTextMessage(BString result, PromiseCombiner promiseCombiner) {
-        ByteBuf byteBuf = null;
-        ByteBuf lastSlice = null;
+    private void sendTextMessage(BString result) {
         try {
-            byteBuf = fromText(result.getValue());
-            int noBytes = byteBuf.readableBytes();
-            int index = 0;
-            final int size = (int) connectionInfo.getWebSocketEndpoint()
-                    .getNativeData(WebSocketConstants.NATIVE_DATA_MAX_FRAME_SIZE);
-            while (index < noBytes - size) {
-                ByteBuf slice = null;
-                try {
-                    slice = byteBuf.retainedSlice(index, size);
-                    String chunk = slice.toString(CharsetUtil.UTF_8);
-                    ChannelFuture future = connectionInfo.getWebSocketConnection().pushText(chunk, false);
-                    promiseCombiner.add(future);
-                    index += size;
-                } finally {
-                    release(slice);
+            ChannelFuture future = WebSocketFrameWriter.writeText(connectionInfo, result.getValue());
+            future.addListener((ChannelFutureListener) channelFuture -> {
+                if (channelFuture.isSuccess()) {
+                    WebSocketObservabilityUtil
+                            .observeSend(WebSocketObservabilityConstants.MESSAGE_TYPE_TEXT, connectionInfo);
+                    connectionInfo.completeWhenWritable(this::readNextFrame);
+                } else {
+                    releaseOnFailure();
+                    dispatchOnError(connectionInfo, channelFuture.cause(), true);
                 }
-            }
-            lastSlice = byteBuf.retainedSlice(index, noBytes - index);
-            String chunk = lastSlice.toString(CharsetUtil.UTF_8);
-            ChannelFuture future = connectionInfo.getWebSocketConnection().pushText(chunk, true);
-            promiseCombiner.add(future);
-            promiseCombiner.finish(connectionInfo.getWebSocketConnection().getChannel().newPromise()
-                    .addListener((ChannelFutureListener) channelFuture -> {
-                        if (channelFuture.isSuccess()) {
-                            WebSocketObservabilityUtil
-                                    .observeSend(WebSocketObservabilityConstants.MESSAGE_TYPE_TEXT, connectionInfo);
-                            webSocketConnection.readNextFrame();
-                        } else {
-                            dispatchOnError(connectionInfo, future.cause(), true);
-                        }
-                    }));
+            });
         } catch (IllegalAccessException | IllegalStateException e) {
             log.error("Error occurred when pushing text data", e);
+            releaseOnFailure();
             dispatchOnError(connectionInfo, e, true);
-        } finally {
-            release(byteBuf);
-            release(lastSlice);
         }
     }
 
     @Override
     public void notifyFailure(BError error) {
+        deleteSpilledMessage();
         error.printStackTrace();
+        releaseOnFailure();
         WebSocketUtil.closeDuringUnexpectedCondition(webSocketConnection);
         //Observe error
         WebSocketObservabilityUtil.observeError(connectionInfo,
                 WebSocketObservabilityConstants.ERROR_TYPE_RESOURCE_INVOCATION,
                 resource, error.getMessage());
     }
+
+    /**
+     * Requests the next frame of the connection once the invocation and the message it returned are complete.
+     */
+    protected void readNextFrame() {
+        webSocketConnection.readNextFrame();
+    }
+
+    /**
+     * Releases what the invocation holds on the connection when the invocation or the message it returned failed.
+     * Without a dispatch window nothing is held, and the next frame is not requested on failure.
+     */
+    protected void releaseOnFailure() {
+    }
+
+    private void deleteSpilledMessage() {
+        if (spilledMessage != null) {
+            spilledMessage.delete();
+        }
+    }
 }
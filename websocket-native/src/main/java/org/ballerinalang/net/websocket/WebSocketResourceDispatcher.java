@@ -18,20 +18,20 @@
 
 package org.ballerinalang.net.websocket;
 
+import io.ballerina.runtime.api.PredefinedTypes;
 import io.ballerina.runtime.api.async.Callback;
 import io.ballerina.runtime.api.async.StrandMetadata;
 import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.creators.TypeCreator;
 import io.ballerina.runtime.api.creators.ValueCreator;
-import io.ballerina.runtime.api.types.MethodType;
+import io.ballerina.runtime.api.types.ArrayType;
 import io.ballerina.runtime.api.types.ResourceMethodType;
-import io.ballerina.runtime.api.types.ServiceType;
-import io.ballerina.runtime.api.types.Type;
 import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
 import io.ballerina.runtime.api.values.BError;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
-import io.ballerina.runtime.api.values.BValue;
 import io.ballerina.runtime.observability.ObservabilityConstants;
 import io.ballerina.runtime.observability.ObserveUtils;
 import io.netty.channel.ChannelFuture;
@@ -51,7 +51,10 @@ import org.ballerinalang.net.transport.message.HttpCarbonRequest;
 import org.ballerinalang.net.websocket.observability.WebSocketObservabilityConstants;
 import org.ballerinalang.net.websocket.observability.WebSocketObservabilityUtil;
 import org.ballerinalang.net.websocket.observability.WebSocketObserverContext;
+import org.ballerinalang.net.websocket.server.DispatchWindow;
+import org.ballerinalang.net.websocket.server.MessageBatch;
 import org.ballerinalang.net.websocket.server.OnUpgradeResourceCallback;
+import org.ballerinalang.net.websocket.server.SpillFile;
 import org.ballerinalang.net.websocket.server.WebSocketConnectionInfo;
 import org.ballerinalang.net.websocket.server.WebSocketConnectionManager;
 import org.ballerinalang.net.websocket.server.WebSocketServerService;
@@ -62,23 +65,18 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-import static io.ballerina.runtime.api.TypeTags.ARRAY_TAG;
-import static io.ballerina.runtime.api.TypeTags.ERROR_TAG;
-import static io.ballerina.runtime.api.TypeTags.INT_TAG;
-import static io.ballerina.runtime.api.TypeTags.OBJECT_TYPE_TAG;
-import static io.ballerina.runtime.api.TypeTags.STRING_TAG;
 import static org.ballerinalang.net.websocket.WebSocketConstants.BACK_SLASH;
-import static org.ballerinalang.net.websocket.WebSocketConstants.PARAM_TYPE_STRING;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_BINARY_MESSAGE;
-import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_CLOSE;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_BINARY_MESSAGES;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_ERROR;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_IDLE_TIMEOUT;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_OPEN;
-import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_PING;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_PONG;
 import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_TEXT_MESSAGE;
+import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_ON_TEXT_MESSAGES;
 
 /**
  * {@code WebSocketDispatcher} This is the web socket request dispatcher implementation which finds best matching
@@ -88,15 +86,16 @@ import static org.ballerinalang.net.websocket.WebSocketConstants.RESOURCE_NAME_O
  */
 public class WebSocketResourceDispatcher {
     private static final Logger log = LoggerFactory.getLogger(WebSocketResourceDispatcher.class);
+    private static final ArrayType BINARY_BATCH_TYPE = TypeCreator.createArrayType(
+            TypeCreator.createArrayType(PredefinedTypes.TYPE_BYTE));
 
     private WebSocketResourceDispatcher() {
     }
 
     public static void dispatchUpgrade(WebSocketHandshaker webSocketHandshaker, WebSocketServerService wsService,
             BMap<BString, Object> httpEndpointConfig, WebSocketConnectionManager connectionManager) {
-        ResourceMethodType resourceFunction = ((ServiceType) wsService.getBalService().getType())
-                .getResourceMethods()[0];
-        String[] resourceParams = resourceFunction.getResourcePath();
+        WebSocketResourceBinder upgradeResource = wsService.getUpgradeResource();
+        String[] resourceParams = ((ResourceMethodType) upgradeResource.getResource()).getResourcePath();
 
         BObject httpCaller = ValueCreatorUtils.createCallerObject();
         BObject inRequest = ValueCreatorUtils.createRequestObject();
@@ -105,7 +104,8 @@ public class WebSocketResourceDispatcher {
         String errMsg = "No resource found for path " + httpCarbonMessage.getRequestUrl();
         String subPath = (String) httpCarbonMessage.getProperty(HttpConstants.SUB_PATH);
         String[] subPaths = new String[0];
-        ArrayList<String> pathParamArr = new ArrayList<>();
+        ArrayList<Object> resourceArgs = new ArrayList<>();
+        resourceArgs.add(inRequest);
         if (!subPath.isEmpty()) {
             subPath = sanitizeSubPath(subPath).substring(1);
             subPaths = subPath.split(BACK_SLASH);
@@ -118,7 +118,7 @@ public class WebSocketResourceDispatcher {
             int i = 0;
             for (String resourceParam : resourceParams) {
                 if (resourceParam.equals("*")) {
-                    pathParamArr.add(subPaths[i]);
+                    resourceArgs.add(StringUtils.fromString(subPaths[i]));
                 } else if (!resourceParam.equals(subPaths[i])) {
                     webSocketHandshaker.cancelHandshake(404, errMsg);
                     return;
@@ -133,27 +133,8 @@ public class WebSocketResourceDispatcher {
         httpCaller.addNativeData(WebSocketConstants.WEBSOCKET_HANDSHAKER, webSocketHandshaker);
         httpCaller.addNativeData(WebSocketConstants.WEBSOCKET_SERVICE, wsService);
         httpCaller.addNativeData(HttpConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_MANAGER, connectionManager);
-        Type[] parameterTypes = resourceFunction.getParameterTypes();
-
-        Object[] bValues = new Object[parameterTypes.length * 2];
-        int index = 0;
-        int pathParamIndex = 0;
-        for (Type param : parameterTypes) {
-            String typeName = param.getName();
-            switch (typeName) {
-                case HttpConstants.REQUEST:
-                    bValues[index++] = inRequest;
-                    bValues[index++] = true;
-                    break;
-                case PARAM_TYPE_STRING:
-                    bValues[index++] = StringUtils.fromString(pathParamArr.get(pathParamIndex++));
-                    bValues[index++] = true;
-                    break;
-                default:
-                    break;
-            }
-        }
-        wsService.getRuntime().invokeMethodAsync(wsService.getBalService(), resourceFunction.getName(), null,
+        Object[] bValues = upgradeResource.bind(resourceArgs.toArray());
+        wsService.getRuntime().invokeMethodAsync(wsService.getBalService(), upgradeResource.getName(), null,
                 ModuleUtils.getOnUpgradeMetaData(),
                 new OnUpgradeResourceCallback(webSocketHandshaker, wsService, connectionManager), bValues);
     }
@@ -173,39 +154,17 @@ public class WebSocketResourceDispatcher {
         caller.addNativeData("transport_message", inboundMsg);
     }
 
-    public static void dispatchOnOpen(WebSocketConnection webSocketConnection, BObject webSocketCaller,
-            WebSocketServerService wsService) {
-        MethodType onOpenResource = null;
-        Object dispatchingService = wsService.getWsService(webSocketConnection.getChannelId());
-        MethodType[] remoteFunctions = ((ServiceType) (((BValue) dispatchingService)
-                .getType())).getMethods();
-        BObject balService = (BObject) dispatchingService;
-        for (MethodType remoteFunc : remoteFunctions) {
-            if (remoteFunc.getName().equals(RESOURCE_NAME_ON_OPEN)) {
-                onOpenResource = remoteFunc;
-                break;
-            }
-        }
-        if (onOpenResource != null) {
-            executeOnOpenResource(wsService, balService, onOpenResource, webSocketCaller, webSocketConnection);
-        } else {
-            webSocketConnection.readNextFrame();
-        }
-    }
-
-    private static void executeOnOpenResource(WebSocketService wsService, BObject balService, MethodType onOpenResource,
-            BObject webSocketEndpoint, WebSocketConnection webSocketConnection) {
-        Type[] parameterTypes = onOpenResource.getParameterTypes();
-        Object[] bValues = new Object[parameterTypes.length * 2];
-        if (parameterTypes.length > 0) {
-            bValues[0] = webSocketEndpoint;
-            bValues[1] = true;
-        }
-        WebSocketConnectionInfo connectionInfo = new WebSocketConnectionInfo(wsService, webSocketConnection,
-                webSocketEndpoint);
+    public static void dispatchOnOpen(WebSocketConnectionInfo connectionInfo) {
+        WebSocketResourceBinder onOpenResource = connectionInfo.getDispatchTable().getOnOpen();
         try {
-            executeResource(wsService, balService, new WebSocketResourceCallback(connectionInfo, RESOURCE_NAME_ON_OPEN),
-                    bValues, connectionInfo, RESOURCE_NAME_ON_OPEN, ModuleUtils.getOnOpenMetaData());
+            if (onOpenResource != null) {
+                Object[] bValues = onOpenResource.bind(connectionInfo.getWebSocketEndpoint());
+                executeResource(connectionInfo.getService(), connectionInfo.getDispatchingService(),
+                        new WebSocketResourceCallback(connectionInfo, RESOURCE_NAME_ON_OPEN), bValues, connectionInfo,
+                        RESOURCE_NAME_ON_OPEN, ModuleUtils.getOnOpenMetaData());
+            } else {
+                connectionInfo.getWebSocketConnection().readNextFrame();
+            }
         } catch (IllegalAccessException e) {
             WebSocketObservabilityUtil
                     .observeError(connectionInfo, WebSocketObservabilityConstants.ERROR_TYPE_RESOURCE_INVOCATION,
@@ -219,59 +178,44 @@ public class WebSocketResourceDispatcher {
         try {
             WebSocketConnection webSocketConnection = connectionInfo.getWebSocketConnection();
             WebSocketService wsService = connectionInfo.getService();
-            MethodType onTextMessageResource = null;
-            BObject balservice;
             BObject wsEndpoint = connectionInfo.getWebSocketEndpoint();
-            if (server) {
-                Object dispatchingService = wsService
-                        .getWsService(connectionInfo.getWebSocketConnection().getChannelId());
-                balservice = (BObject) dispatchingService;
-                MethodType[] remoteFunctions = ((ServiceType) (((BValue) dispatchingService).getType()))
-                        .getMethods();
-                for (MethodType remoteFunc : remoteFunctions) {
-                    if (remoteFunc.getName().equals(RESOURCE_NAME_ON_TEXT_MESSAGE)) {
-                        onTextMessageResource = remoteFunc;
-                        break;
-                    }
-                }
-            } else {
-                balservice = wsService.getBalService();
-                onTextMessageResource = wsService.getResourceByName(RESOURCE_NAME_ON_TEXT_MESSAGE);
-            }
-            if (onTextMessageResource == null) {
+            BObject balservice = connectionInfo.getDispatchingService();
+            WebSocketDispatchTable dispatchTable = connectionInfo.getDispatchTable();
+            WebSocketResourceBinder onTextMessageResource = dispatchTable.getOnTextMessage();
+            WebSocketResourceBinder onTextMessagesResource = dispatchTable.getOnTextMessages();
+            if (onTextMessageResource == null && onTextMessagesResource == null) {
                 webSocketConnection.readNextFrame();
                 return;
             }
-            Type[] parameterTypes = onTextMessageResource.getParameterTypes();
-            Object[] bValues = new Object[parameterTypes.length * 2];
-
             boolean finalFragment = textMessage.isFinalFragment();
+            if (connectionInfo.isFragmentDelivery() && onTextMessageResource != null) {
+                Object[] bValues = onTextMessageResource.bind(wsEndpoint,
+                        StringUtils.fromString(textMessage.getText()), finalFragment);
+                executeResource(wsService, balservice,
+                        new WebSocketResourceCallback(connectionInfo, RESOURCE_NAME_ON_TEXT_MESSAGE), bValues,
+                        connectionInfo, RESOURCE_NAME_ON_TEXT_MESSAGE, ModuleUtils.getOnTextMetaData());
+                return;
+            }
             WebSocketConnectionInfo.StringAggregator stringAggregator = connectionInfo
                     .createIfNullAndGetStringAggregator();
-            if (finalFragment) {
-                stringAggregator.appendAggregateString(textMessage.getText());
-                int index = 0;
-                for (Type param : parameterTypes) {
-                    String typeName = param.getName();
-                    switch (typeName) {
-                    case WebSocketConstants.WEBSOCKET_CALLER:
-                        bValues[index++] = wsEndpoint;
-                        bValues[index++] = true;
-                        break;
-                    case PARAM_TYPE_STRING:
-                        bValues[index++] = StringUtils.fromString(stringAggregator.getAggregateString());
-                        bValues[index++] = true;
-                        break;
-                    default:
-                        break;
-                    }
-                }
+            stringAggregator.appendAggregateString(textMessage.getText());
+            if (stringAggregator.isMaxMessageSizeExceeded()) {
+                abortOnMessageTooBig(connectionInfo, webSocketConnection, server);
+                return;
+            }
+            if (finalFragment && onTextMessagesResource != null) {
+                BString message = stringAggregator.getAggregateString();
+                stringAggregator.resetAggregateString();
+                addToBatch(connectionInfo, connectionInfo.createIfNullAndGetTextBatch(), message, false);
+            } else if (finalFragment) {
+                Object[] bValues = onTextMessageResource.bind(wsEndpoint, stringAggregator.getAggregateString(),
+                        true);
                 executeResource(wsService, balservice,
-                        new WebSocketResourceCallback(connectionInfo, RESOURCE_NAME_ON_TEXT_MESSAGE), bValues,
+                        createMessageCallback(connectionInfo, RESOURCE_NAME_ON_TEXT_MESSAGE, null), bValues,
                         connectionInfo, RESOURCE_NAME_ON_TEXT_MESSAGE, ModuleUtils.getOnTextMetaData());
                 stringAggregator.resetAggregateString();
+                readAhead(connectionInfo, webSocketConnection);
             } else {
-                stringAggregator.appendAggregateString(textMessage.getText());
                 webSocketConnection.readNextFrame();
             }
         } catch (Exception e) {
@@ -289,50 +233,196 @@ public class WebSocketResourceDispatcher {
         try {
             WebSocketConnection webSocketConnection = connectionInfo.getWebSocketConnection();
             WebSocketService wsService = connectionInfo.getService();
-            MethodType onBinaryMessageResource = null;
-            BObject balservice;
             BObject wsEndpoint = connectionInfo.getWebSocketEndpoint();
-            if (server) {
-                Object dispatchingService = wsService
-                        .getWsService(connectionInfo.getWebSocketConnection().getChannelId());
-                balservice = (BObject) dispatchingService;
-                MethodType[] remoteFunctions = ((ServiceType) (((BValue) dispatchingService).getType()))
-                        .getMethods();
-                for (MethodType remoteFunc : remoteFunctions) {
-                    if (remoteFunc.getName().equals(RESOURCE_NAME_ON_BINARY_MESSAGE)) {
-                        onBinaryMessageResource = remoteFunc;
-                        break;
-                    }
-                }
-            } else {
-                balservice = wsService.getBalService();
-                onBinaryMessageResource = wsService.getResourceByName(RESOURCE_NAME_ON_BINARY_MESSAGE);
-            }
-            if (onBinaryMessageResource == null) {
+            BObject balservice = connectionInfo.getDispatchingService();
+            WebSocketDispatchTable dispatchTable = connectionInfo.getDispatchTable();
+            WebSocketResourceBinder onBinaryMessageResource = dispatchTable.getOnBinaryMessage();
+            WebSocketResourceBinder onBinaryMessagesResource = dispatchTable.getOnBinaryMessages();
+            if (onBinaryMessageResource == null && onBinaryMessagesResource == null) {
                 webSocketConnection.readNextFrame();
                 return;
             }
             boolean finalFragment = binaryMessage.isFinalFragment();
-            Type[] paramDetails = onBinaryMessageResource.getParameterTypes();
-            Object[] bValues = new Object[paramDetails.length * 2];
-            WebSocketConnectionInfo.ByteArrAggregator byteAggregator = connectionInfo
-                    .createIfNullAndGetByteArrAggregator();
-            if (finalFragment) {
-                byteAggregator.appendAggregateArr(binaryMessage.getByteArray());
-                createBvaluesForBarray(wsEndpoint, paramDetails, bValues, byteAggregator.getAggregateByteArr());
+            if (connectionInfo.isFragmentDelivery() && onBinaryMessageResource != null) {
+                Object[] bValues = bindByteArray(onBinaryMessageResource, wsEndpoint, binaryMessage.getByteArray(),
+                        finalFragment);
                 executeResource(wsService, balservice, new WebSocketResourceCallback(
                                 connectionInfo, RESOURCE_NAME_ON_BINARY_MESSAGE), bValues, connectionInfo,
                         RESOURCE_NAME_ON_BINARY_MESSAGE, ModuleUtils.getOnBinaryMetaData());
+                return;
+            }
+            WebSocketConnectionInfo.ByteArrAggregator byteAggregator = connectionInfo
+                    .createIfNullAndGetByteArrAggregator();
+            byteAggregator.appendAggregateArr(binaryMessage.getByteBuffer());
+            if (byteAggregator.isMaxMessageSizeExceeded()) {
+                abortOnMessageTooBig(connectionInfo, webSocketConnection, server);
+                return;
+            }
+            if (finalFragment && onBinaryMessagesResource != null) {
+                BArray message = ValueCreator.createArrayValue(byteAggregator.getAggregateByteArr());
                 byteAggregator.resetAggregateByteArr();
+                addToBatch(connectionInfo, connectionInfo.createIfNullAndGetBinaryBatch(), message, true);
+            } else if (finalFragment) {
+                SpillFile spilledMessage = null;
+                Object[] bValues;
+                if (byteAggregator.isSpilled()) {
+                    spilledMessage = byteAggregator.takeSpillFile();
+                    bValues = onBinaryMessageResource.bind(wsEndpoint, createSpilledBinaryMessage(spilledMessage),
+                            true);
+                } else {
+                    bValues = bindByteArray(onBinaryMessageResource, wsEndpoint,
+                            byteAggregator.getAggregateByteArr(), true);
+                }
+                executeResource(wsService, balservice, createMessageCallback(
+                                connectionInfo, RESOURCE_NAME_ON_BINARY_MESSAGE, spilledMessage), bValues,
+                        connectionInfo, RESOURCE_NAME_ON_BINARY_MESSAGE, ModuleUtils.getOnBinaryMetaData());
+                byteAggregator.resetAggregateByteArr();
+                readAhead(connectionInfo, webSocketConnection);
             } else {
-                byteAggregator.appendAggregateArr(binaryMessage.getByteArray());
                 webSocketConnection.readNextFrame();
             }
-        } catch (IllegalAccessException | IOException e) {
+        } catch (IllegalAccessException e) {
             WebSocketObservabilityUtil.observeError(connectionInfo,
                     WebSocketObservabilityConstants.ERROR_TYPE_MESSAGE_RECEIVED,
                     WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY,
                     e.getMessage());
+        } catch (IOException e) {
+            log.error("Error occurred when spilling the binary message to disk", e);
+            connectionInfo.releaseAggregators();
+            dispatchOnError(connectionInfo, e, server);
+            closeDuringUnexpectedCondition(connectionInfo);
+        }
+    }
+
+    private static WebSocketResourceCallback createMessageCallback(WebSocketConnectionInfo connectionInfo,
+            String resource, SpillFile spilledMessage) throws IllegalAccessException {
+        DispatchWindow window = connectionInfo.getDispatchWindow();
+        if (window == null) {
+            return new WebSocketResourceCallback(connectionInfo, resource, spilledMessage);
+        }
+        return new WindowedResourceCallback(connectionInfo, resource, spilledMessage, window);
+    }
+
+    /**
+     * Reads the next frame right after a message is dispatched if the dispatch window of the connection has room.
+     * Without a window the frame is read when the message has been handled.
+     */
+    private static void readAhead(WebSocketConnectionInfo connectionInfo, WebSocketConnection webSocketConnection) {
+        DispatchWindow window = connectionInfo.getDispatchWindow();
+        if (window != null) {
+            window.readAhead(webSocketConnection);
+        }
+    }
+
+    /**
+     * Adds a complete message to the batch of the connection. Frames keep being read ahead until the batch is full
+     * or its linger time has elapsed, and are held back while a batch of the connection is being dispatched.
+     */
+    private static void addToBatch(WebSocketConnectionInfo connectionInfo, MessageBatch batch, Object message,
+            boolean binary) throws IllegalAccessException {
+        connectionInfo.setBatchReadPending(false);
+        batch.add(message);
+        continueBatch(connectionInfo, batch, binary);
+    }
+
+    private static void continueBatch(WebSocketConnectionInfo connectionInfo, MessageBatch batch, boolean binary)
+            throws IllegalAccessException {
+        if (batch.isInFlight()) {
+            return;
+        }
+        if (batch.isFull()) {
+            dispatchBatch(connectionInfo, batch, binary);
+            return;
+        }
+        WebSocketConnection webSocketConnection = connectionInfo.getWebSocketConnection();
+        if (!batch.isEmpty()) {
+            batch.scheduleLinger(webSocketConnection.getChannel().eventLoop(),
+                    () -> dispatchBatch(connectionInfo, batch, binary));
+        }
+        if (!connectionInfo.isBatchReadPending()) {
+            connectionInfo.setBatchReadPending(true);
+            webSocketConnection.readNextFrame();
+        }
+    }
+
+    private static void dispatchBatch(WebSocketConnectionInfo connectionInfo, MessageBatch batch, boolean binary) {
+        if (batch.isInFlight() || batch.isEmpty()) {
+            return;
+        }
+        List<Object> messages = batch.drain();
+        batch.setInFlight(true);
+        String resourceName = binary ? RESOURCE_NAME_ON_BINARY_MESSAGES : RESOURCE_NAME_ON_TEXT_MESSAGES;
+        try {
+            WebSocketConnection webSocketConnection = connectionInfo.getWebSocketConnection();
+            WebSocketDispatchTable dispatchTable = connectionInfo.getDispatchTable();
+            WebSocketResourceBinder resource;
+            BArray payload;
+            StrandMetadata metaData;
+            if (binary) {
+                resource = dispatchTable.getOnBinaryMessages();
+                payload = ValueCreator.createArrayValue(messages.toArray(), BINARY_BATCH_TYPE);
+                metaData = ModuleUtils.getOnBinaryBatchMetaData();
+            } else {
+                resource = dispatchTable.getOnTextMessages();
+                payload = ValueCreator.createArrayValue(messages.toArray(new BString[0]));
+                metaData = ModuleUtils.getOnTextBatchMetaData();
+            }
+            Callback callback = new WebSocketResourceCallback(connectionInfo, resourceName) {
+                @Override
+                protected void readNextFrame() {
+                    // Resumes reading on the event loop, which owns the state of the batch
+                    webSocketConnection.getChannel().eventLoop().execute(() -> {
+                        batch.setInFlight(false);
+                        try {
+                            continueBatch(connectionInfo, batch, binary);
+                        } catch (IllegalAccessException e) {
+                            observeBatchError(connectionInfo, binary, e);
+                        }
+                    });
+                }
+            };
+            executeResource(connectionInfo.getService(), connectionInfo.getDispatchingService(), callback,
+                    resource.bind(connectionInfo.getWebSocketEndpoint(), payload), connectionInfo, resourceName,
+                    metaData);
+        } catch (IllegalAccessException e) {
+            observeBatchError(connectionInfo, binary, e);
+        }
+    }
+
+    private static void observeBatchError(WebSocketConnectionInfo connectionInfo, boolean binary, Exception e) {
+        WebSocketObservabilityUtil.observeError(connectionInfo,
+                WebSocketObservabilityConstants.ERROR_TYPE_MESSAGE_RECEIVED,
+                binary ? WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY
+                        : WebSocketObservabilityConstants.MESSAGE_TYPE_TEXT,
+                e.getMessage());
+    }
+
+    private static BMap<BString, Object> createSpilledBinaryMessage(SpillFile spilledMessage) {
+        BMap<BString, Object> message = ValueCreator.createRecordValue(ModuleUtils.getWebsocketModule(),
+                WebSocketConstants.SPILLED_BINARY_MESSAGE);
+        message.put(WebSocketConstants.SPILLED_MESSAGE_PATH_FIELD,
+                StringUtils.fromString(spilledMessage.getPath().toString()));
+        message.put(WebSocketConstants.SPILLED_MESSAGE_LENGTH_FIELD, spilledMessage.getLength());
+        return message;
+    }
+
+    /**
+     * Drops the partially received message, notifies the service and closes the connection with the status code
+     * 1009 once the message grows beyond the maximum message size.
+     */
+    private static void abortOnMessageTooBig(WebSocketConnectionInfo connectionInfo,
+            WebSocketConnection webSocketConnection, boolean server) {
+        connectionInfo.releaseAggregators();
+        dispatchOnError(connectionInfo, WebSocketUtil.createMessageTooBigException(
+                connectionInfo.getMaxMessageSize()), server);
+        WebSocketUtil.closeDuringMessageTooBig(webSocketConnection);
+    }
+
+    private static void closeDuringUnexpectedCondition(WebSocketConnectionInfo connectionInfo) {
+        try {
+            WebSocketUtil.closeDuringUnexpectedCondition(connectionInfo.getWebSocketConnection());
+        } catch (IllegalAccessException e) {
+            connectionInfo.getWebSocketEndpoint().set(WebSocketConstants.LISTENER_IS_OPEN_FIELD, false);
         }
     }
 
@@ -351,32 +441,14 @@ public class WebSocketResourceDispatcher {
                 connectionInfo);
         try {
             WebSocketService wsService = connectionInfo.getService();
-            MethodType onPingMessageResource = null;
-            BObject balservice = null;
-            if (server) {
-                Object dispatchingService = wsService
-                        .getWsService(connectionInfo.getWebSocketConnection().getChannelId());
-                balservice = (BObject) dispatchingService;
-                MethodType[] remoteFunctions = ((ServiceType) (((BValue) dispatchingService).getType()))
-                        .getMethods();
-                for (MethodType remoteFunc : remoteFunctions) {
-                    if (remoteFunc.getName().equals(RESOURCE_NAME_ON_PING)) {
-                        onPingMessageResource = remoteFunc;
-                        break;
-                    }
-                }
-            } else {
-                balservice = wsService.getBalService();
-                onPingMessageResource = wsService.getResourceByName(RESOURCE_NAME_ON_PING);
-            }
+            BObject balservice = connectionInfo.getDispatchingService();
+            WebSocketResourceBinder onPingMessageResource = connectionInfo.getDispatchTable().getOnPing();
             if (onPingMessageResource == null) {
                 pongAutomatically(controlMessage);
                 return;
             }
-            Type[] paramTypes = onPingMessageResource.getParameterTypes();
-            Object[] bValues = new Object[paramTypes.length * 2];
-            createBvaluesForBarray(connectionInfo.getWebSocketEndpoint(), paramTypes, bValues,
-                    controlMessage.getByteArray());
+            Object[] bValues = bindByteArray(onPingMessageResource, connectionInfo.getWebSocketEndpoint(),
+                    controlMessage.getByteArray(), true);
             executeResource(wsService, balservice, new WebSocketResourceCallback(
                             connectionInfo, WebSocketConstants.RESOURCE_NAME_ON_PING),
                     bValues, connectionInfo, WebSocketConstants.RESOURCE_NAME_ON_PING, ModuleUtils.getOnPingMetaData());
@@ -389,24 +461,10 @@ public class WebSocketResourceDispatcher {
         }
     }
 
-    private static void createBvaluesForBarray(BObject wsEndpoint, Type[] paramTypes, Object[] bValues,
-            byte[] byteArray) {
-        int index = 0;
-        for (Type param : paramTypes) {
-            int typeName = param.getTag();
-            switch (typeName) {
-            case OBJECT_TYPE_TAG:
-                bValues[index++] = wsEndpoint;
-                bValues[index++] = true;
-                break;
-            case ARRAY_TAG:
-                bValues[index++] = ValueCreator.createArrayValue(byteArray);
-                bValues[index++] = true;
-                break;
-            default:
-                break;
-            }
-        }
+    private static Object[] bindByteArray(WebSocketResourceBinder resource, BObject wsEndpoint, byte[] byteArray,
+            boolean finalFragment) {
+        BArray payload = resource.isPayloadBound() ? ValueCreator.createArrayValue(byteArray) : null;
+        return resource.bind(wsEndpoint, payload, finalFragment);
     }
 
     private static void dispatchOnPong(WebSocketConnectionInfo connectionInfo, WebSocketControlMessage controlMessage,
@@ -416,32 +474,14 @@ public class WebSocketResourceDispatcher {
         try {
             WebSocketConnection webSocketConnection = connectionInfo.getWebSocketConnection();
             WebSocketService wsService = connectionInfo.getService();
-            MethodType onPongMessageResource = null;
-            BObject balservice = null;
-            if (server) {
-                Object dispatchingService = wsService
-                        .getWsService(connectionInfo.getWebSocketConnection().getChannelId());
-                balservice = (BObject) dispatchingService;
-                MethodType[] remoteFunctions = ((ServiceType) (((BValue) dispatchingService)
-                        .getType())).getMethods();
-                for (MethodType remoteFunc : remoteFunctions) {
-                    if (remoteFunc.getName().equals(RESOURCE_NAME_ON_PONG)) {
-                        onPongMessageResource = remoteFunc;
-                        break;
-                    }
-                }
-            } else {
-                balservice = wsService.getBalService();
-                onPongMessageResource = wsService.getResourceByName(RESOURCE_NAME_ON_PONG);
-            }
+            BObject balservice = connectionInfo.getDispatchingService();
+            WebSocketResourceBinder onPongMessageResource = connectionInfo.getDispatchTable().getOnPong();
             if (onPongMessageResource == null) {
                 webSocketConnection.readNextFrame();
                 return;
             }
-            Type[] paramDetails = onPongMessageResource.getParameterTypes();
-            Object[] bValues = new Object[paramDetails.length * 2];
-            createBvaluesForBarray(connectionInfo.getWebSocketEndpoint(), paramDetails, bValues,
-                    controlMessage.getByteArray());
+            Object[] bValues = bindByteArray(onPongMessageResource, connectionInfo.getWebSocketEndpoint(),
+                    controlMessage.getByteArray(), true);
             executeResource(wsService, balservice, new WebSocketResourceCallback(
                             connectionInfo, RESOURCE_NAME_ON_PONG),
                     bValues, connectionInfo, RESOURCE_NAME_ON_PONG, ModuleUtils.getOnPongMetaData());
@@ -461,54 +501,16 @@ public class WebSocketResourceDispatcher {
             WebSocketUtil.setListenerOpenField(connectionInfo);
             WebSocketConnection webSocketConnection = connectionInfo.getWebSocketConnection();
             WebSocketService wsService = connectionInfo.getService();
-            MethodType onCloseResource = null;
             int closeCode = closeMessage.getCloseCode();
             String closeReason = closeMessage.getCloseReason();
-            BObject balservice = null;
-            if (server) {
-                Object dispatchingService = wsService
-                        .getWsService(connectionInfo.getWebSocketConnection().getChannelId());
-                balservice = (BObject) dispatchingService;
-                MethodType[] remoteFunctions = ((ServiceType) (((BValue) dispatchingService)
-                        .getType())).getMethods();
-                for (MethodType remoteFunc : remoteFunctions) {
-                    if (remoteFunc.getName().equals(RESOURCE_NAME_ON_CLOSE)) {
-                        onCloseResource = remoteFunc;
-                        break;
-                    }
-                }
-            } else {
-                balservice = wsService.getBalService();
-                onCloseResource = wsService.getResourceByName(RESOURCE_NAME_ON_CLOSE);
-            }
+            BObject balservice = connectionInfo.getDispatchingService();
+            WebSocketResourceBinder onCloseResource = connectionInfo.getDispatchTable().getOnClose();
             if (onCloseResource == null) {
                 finishConnectionClosureIfOpen(webSocketConnection, closeCode, connectionInfo);
                 return;
             }
-
-            Type[] paramDetails = onCloseResource.getParameterTypes();
-            Object[] bValues = new Object[paramDetails.length * 2];
-            int index = 0;
-            for (Type param : paramDetails) {
-                int typeName = param.getTag();
-                switch (typeName) {
-                case OBJECT_TYPE_TAG:
-                    bValues[index++] = connectionInfo.getWebSocketEndpoint();
-                    bValues[index++] = true;
-                    break;
-                case STRING_TAG:
-                    bValues[index++] =
-                            closeReason == null ? StringUtils.fromString("") : StringUtils.fromString(closeReason);
-                    bValues[index++] = true;
-                    break;
-                case INT_TAG:
-                    bValues[index++] = closeCode;
-                    bValues[index++] = true;
-                    break;
-                default:
-                    break;
-                }
-            }
+            Object[] bValues = onCloseResource.bind(connectionInfo.getWebSocketEndpoint(), closeCode,
+                    closeReason == null ? StringUtils.fromString("") : StringUtils.fromString(closeReason));
             Callback onCloseCallback = new Callback() {
                 @Override
                 public void notifySuccess(Object result) {
@@ -556,7 +558,6 @@ public class WebSocketResourceDispatcher {
             connectionInfo.getWebSocketEndpoint().set(WebSocketConstants.LISTENER_IS_OPEN_FIELD, false);
         }
         WebSocketService webSocketService = connectionInfo.getService();
-        MethodType onErrorResource = null;
         if (isUnexpectedError(throwable)) {
             log.error("Unexpected error", throwable);
             WebSocketObservabilityUtil.observeError(connectionInfo,
@@ -564,52 +565,14 @@ public class WebSocketResourceDispatcher {
                     WebSocketObservabilityConstants.MESSAGE_TYPE_TEXT,
                     "Unexpected error");
         }
-        BObject balservice = null;
-        if (server) {
-            Object dispatchingService;
-            try {
-                dispatchingService = webSocketService
-                        .getWsService(connectionInfo.getWebSocketConnection().getChannelId());
-                balservice = (BObject) dispatchingService;
-                MethodType[] remoteFunctions = ((ServiceType) (((BValue) dispatchingService)
-                        .getType())).getMethods();
-                for (MethodType remoteFunc : remoteFunctions) {
-                    if (remoteFunc.getName().equals(RESOURCE_NAME_ON_ERROR)) {
-                        onErrorResource = remoteFunc;
-                        break;
-                    }
-                }
-            } catch (IllegalAccessException ex) {
-                connectionInfo.getWebSocketEndpoint().set(WebSocketConstants.LISTENER_IS_OPEN_FIELD, false);
-            }
-        } else {
-            balservice = webSocketService.getBalService();
-            onErrorResource = webSocketService.getResourceByName(RESOURCE_NAME_ON_ERROR);
-        }
+        BObject balservice = connectionInfo.getDispatchingService();
+        WebSocketResourceBinder onErrorResource = connectionInfo.getDispatchTable().getOnError();
         if (onErrorResource == null) {
             ErrorCreator.createError(throwable.getCause()).printStackTrace();
             return;
         }
-
-        Type[] paramDetails = onErrorResource.getParameterTypes();
-        Object[] bValues = new Object[paramDetails.length * 2];
-
-        int index = 0;
-        for (Type param : paramDetails) {
-            int typeName = param.getTag();
-            switch (typeName) {
-            case OBJECT_TYPE_TAG:
-                bValues[index++] = connectionInfo.getWebSocketEndpoint();
-                bValues[index++] = true;
-                break;
-            case ERROR_TAG:
-                bValues[index++] = WebSocketUtil.createErrorByType(throwable);
-                bValues[index++] = true;
-                break;
-            default:
-                break;
-            }
-        }
+        Object[] bValues = onErrorResource.bind(connectionInfo.getWebSocketEndpoint(),
+                WebSocketUtil.createErrorByType(throwable));
         Callback onErrorCallback = new Callback() {
             @Override
             public void notifySuccess(Object result) {
@@ -637,33 +600,12 @@ public class WebSocketResourceDispatcher {
         try {
             WebSocketConnection webSocketConnection = connectionInfo.getWebSocketConnection();
             WebSocketService wsService = connectionInfo.getService();
-            MethodType onIdleTimeoutResource = null;
-            BObject balservice = null;
-            if (server) {
-                Object dispatchingService = wsService
-                        .getWsService(connectionInfo.getWebSocketConnection().getChannelId());
-                balservice = (BObject) dispatchingService;
-                MethodType[] remoteFunctions = ((ServiceType) (((BValue) dispatchingService)
-                        .getType())).getMethods();
-                for (MethodType remoteFunc : remoteFunctions) {
-                    if (remoteFunc.getName().equals(RESOURCE_NAME_ON_IDLE_TIMEOUT)) {
-                        onIdleTimeoutResource = remoteFunc;
-                        break;
-                    }
-                }
-            } else {
-                balservice = wsService.getBalService();
-                onIdleTimeoutResource = wsService.getResourceByName(RESOURCE_NAME_ON_IDLE_TIMEOUT);
-            }
+            BObject balservice = connectionInfo.getDispatchingService();
+            WebSocketResourceBinder onIdleTimeoutResource = connectionInfo.getDispatchTable().getOnIdleTimeout();
             if (onIdleTimeoutResource == null) {
                 return;
             }
-            Type[] paramDetails = onIdleTimeoutResource.getParameterTypes();
-            Object[] bValues = new Object[paramDetails.length * 2];
-            if (paramDetails.length > 0) {
-                bValues[0] = connectionInfo.getWebSocketEndpoint();
-                bValues[1] = true;
-            }
+            Object[] bValues = onIdleTimeoutResource.bind(connectionInfo.getWebSocketEndpoint());
             Callback onIdleTimeoutCallback = new Callback() {
                 @Override
                 public void notifySuccess(Object result) {
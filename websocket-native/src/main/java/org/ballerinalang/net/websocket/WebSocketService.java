@@ -33,17 +33,19 @@ public class WebSocketService {
     protected final BObject service;
     protected Runtime runtime;
     private final Map<String, MethodType> resourcesMap = new ConcurrentHashMap<>();
-    private Map<String, Object> wsServices = new ConcurrentHashMap<>();
+    private final WebSocketDispatchTable dispatchTable;
 
     public WebSocketService(Runtime runtime) {
         this.runtime = runtime;
         service = null;
+        dispatchTable = WebSocketDispatchTable.getDispatchTable(null);
     }
 
     public WebSocketService(BObject service, Runtime runtime) {
         this.runtime = runtime;
         this.service = service;
         populateResourcesMap(service);
+        dispatchTable = WebSocketDispatchTable.getDispatchTable(service);
     }
 
     private void populateResourcesMap(BObject service) {
@@ -56,6 +58,10 @@ public class WebSocketService {
         return resourcesMap.get(resourceName);
     }
 
+    public WebSocketDispatchTable getDispatchTable() {
+        return dispatchTable;
+    }
+
     public BObject getBalService() {
         return service;
     }
@@ -63,12 +69,4 @@ public class WebSocketService {
     public Runtime getRuntime() {
         return runtime;
     }
-
-    public void addWsService(String channelId, Object dispatchingService) {
-        this.wsServices.put(channelId, dispatchingService);
-    }
-
-    public Object getWsService(String key) {
-        return this.wsServices.get(key);
-    }
 }
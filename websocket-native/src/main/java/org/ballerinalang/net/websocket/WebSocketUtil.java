@@ -31,11 +31,17 @@ import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.handler.codec.CodecException;
 import io.netty.handler.codec.TooLongFrameException;
 import io.netty.handler.codec.http.websocketx.CorruptedWebSocketFrameException;
 import io.netty.handler.codec.http.websocketx.WebSocketCloseStatus;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameEncoder;
 import io.netty.handler.codec.http.websocketx.WebSocketHandshakeException;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import org.ballerinalang.net.http.HttpConstants;
 import org.ballerinalang.net.http.HttpErrorType;
 import org.ballerinalang.net.http.HttpUtil;
@@ -53,6 +59,7 @@ import org.ballerinalang.net.websocket.client.listener.FailoverHandshakeListener
 import org.ballerinalang.net.websocket.client.listener.RetryHandshakeListener;
 import org.ballerinalang.net.websocket.client.listener.WebSocketHandshakeListener;
 import org.ballerinalang.net.websocket.observability.WebSocketObservabilityUtil;
+import org.ballerinalang.net.websocket.server.OutboundScheduler;
 import org.ballerinalang.net.websocket.server.WebSocketConnectionInfo;
 import org.ballerinalang.net.websocket.server.WebSocketConnectionManager;
 import org.ballerinalang.net.websocket.server.WebSocketServerService;
@@ -60,6 +67,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
@@ -90,8 +98,8 @@ public class WebSocketUtil {
     public static final String LOG_MESSAGE = "{} {}";
 
     public static BObject createAndPopulateWebSocketCaller(WebSocketConnection webSocketConnection,
-            WebSocketServerService wsService,
-            WebSocketConnectionManager connectionManager) {
+            WebSocketServerService wsService, WebSocketConnectionManager connectionManager,
+            BObject dispatchingService) {
         BObject webSocketCaller = ValueCreator
                 .createObjectValue(ModuleUtils.getWebsocketModule(), WebSocketConstants.WEBSOCKET_CALLER,
                         StringUtils.fromString(""), null, null);
@@ -104,6 +112,19 @@ public class WebSocketUtil {
         webSocketCaller.set(INITIALIZED_BY_SERVICE, true);
         WebSocketConnectionInfo connectionInfo =
                 new WebSocketConnectionInfo(wsService, webSocketConnection, webSocketCaller);
+        connectionInfo.setDispatchingService(dispatchingService);
+        connectionInfo.setConnectionManager(connectionManager);
+        connectionInfo.setMessageSizeLimits(wsService.getMaxMessageSize(), wsService.getSpillThreshold());
+        connectionInfo.setFragmentDelivery(wsService.isFragmentDelivery());
+        connectionInfo.setBatchConfig(wsService.getMaxBatchSize(), wsService.getBatchLingerMicros());
+        connectionInfo.setDispatchWindow(wsService.getDispatchWindow(), wsService.isOrderedDispatch());
+        connectionInfo.trackCloseFrames();
+        consolidateFlushes(webSocketConnection, wsService.getMaxUnflushedWrites());
+        setWriteBufferWaterMark(webSocketConnection, wsService.getWriteBufferWaterMark());
+        connectionInfo.setWaitUntilWritable(wsService.isWaitUntilWritable());
+        connectionInfo.setMaxQueuedWrites(wsService.getMaxQueuedWrites());
+        connectionInfo.setCompleteOnEventLoop(wsService.isCompleteOnEventLoop());
+        scheduleOutboundFrames(webSocketConnection, wsService.getOutboundDataWindow());
         connectionManager.addConnection(webSocketConnection.getChannelId(), connectionInfo);
         webSocketConnector.addNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO,
                 connectionInfo);
@@ -187,6 +208,19 @@ public class WebSocketUtil {
         webSocketConnection.terminateConnection(1011, "Unexpected condition");
     }
 
+    /**
+     * Closes the connection with the status code 1009 when a message exceeds the maximum message size.
+     */
+    public static void closeDuringMessageTooBig(WebSocketConnection webSocketConnection) {
+        webSocketConnection.terminateConnection(WebSocketCloseStatus.MESSAGE_TOO_BIG.code(),
+                WebSocketConstants.MESSAGE_TOO_BIG_REASON);
+    }
+
+    public static CorruptedWebSocketFrameException createMessageTooBigException(long maxMessageSize) {
+        return new CorruptedWebSocketFrameException(WebSocketCloseStatus.MESSAGE_TOO_BIG,
+                "Max message length of " + maxMessageSize + " has been exceeded.");
+    }
+
     public static void setListenerOpenField(WebSocketConnectionInfo connectionInfo) throws IllegalAccessException {
         connectionInfo.getWebSocketEndpoint().set(WebSocketConstants.LISTENER_IS_OPEN_FIELD,
                 connectionInfo.getWebSocketConnection().isOpen());
@@ -207,6 +241,139 @@ public class WebSocketUtil {
 
     }
 
+    /**
+     * Reads a message size limit from the configuration. Zero is returned when the limit is not set, which
+     * disables the limit.
+     */
+    public static long findMessageSizeLimit(BMap<BString, Object> configs, BString key) {
+        if (!configs.containsKey(key)) {
+            return 0;
+        }
+        return Math.max(configs.getIntValue(key), 0);
+    }
+
+    public static int findMaxBatchSize(BMap<BString, Object> configs) {
+        long size = configs.getIntValue(WebSocketConstants.ANNOTATION_ATTR_MAX_BATCH_SIZE);
+        if (size <= 0) {
+            return WebSocketConstants.DEFAULT_MAX_BATCH_SIZE;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads the number of writes after which a flush is forced when flushes are consolidated. Zero is returned
+     * when it is not set, which disables the consolidation.
+     */
+    public static int findMaxUnflushedWrites(BMap<BString, Object> configs) {
+        if (!configs.containsKey(WebSocketConstants.ANNOTATION_ATTR_MAX_UNFLUSHED_WRITES)) {
+            return 0;
+        }
+        long writes = configs.getIntValue(WebSocketConstants.ANNOTATION_ATTR_MAX_UNFLUSHED_WRITES);
+        return (int) Math.min(Math.max(writes, 0), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Installs a {@link FlushConsolidationHandler} at the head of the pipeline of the connection, so that the frames
+     * written while a read is in progress are flushed when the read completes and the ones written outside of a read
+     * are flushed once per event loop turn. A flush is still forced after the given number of writes. The futures of
+     * the writes complete when the data is actually written as before.
+     */
+    public static void consolidateFlushes(WebSocketConnection webSocketConnection, int maxUnflushedWrites) {
+        if (maxUnflushedWrites <= 0) {
+            return;
+        }
+        ChannelPipeline pipeline = webSocketConnection.getChannel().pipeline();
+        if (pipeline.get(WebSocketConstants.FLUSH_CONSOLIDATION_HANDLER) == null) {
+            pipeline.addFirst(WebSocketConstants.FLUSH_CONSOLIDATION_HANDLER,
+                    new FlushConsolidationHandler(maxUnflushedWrites, true));
+        }
+    }
+
+    /**
+     * Reads the number of bytes of data frames which may be in flight ahead of a control frame. Zero is returned
+     * when it is not set, which leaves the frames unscheduled.
+     */
+    public static int findOutboundDataWindow(BMap<BString, Object> configs) {
+        if (!configs.containsKey(WebSocketConstants.ANNOTATION_ATTR_OUTBOUND_DATA_WINDOW)) {
+            return 0;
+        }
+        long window = configs.getIntValue(WebSocketConstants.ANNOTATION_ATTR_OUTBOUND_DATA_WINDOW);
+        return (int) Math.min(Math.max(window, 0), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Installs an {@link OutboundScheduler} right after the frame encoder of the connection, so that pings and pongs
+     * are sent after at most the given number of bytes of data frames, and urgent messages are sent ahead of the
+     * normal ones which have not started yet. Placed there, the scheduler sees the frames the transport writes from
+     * its own handler, such as single frame messages and close frames, as well as the ones written to the channel.
+     */
+    public static void scheduleOutboundFrames(WebSocketConnection webSocketConnection, int outboundDataWindow) {
+        if (outboundDataWindow <= 0) {
+            return;
+        }
+        ChannelPipeline pipeline = webSocketConnection.getChannel().pipeline();
+        if (pipeline.get(WebSocketConstants.OUTBOUND_SCHEDULER) == null) {
+            addAfterFrameEncoder(pipeline, WebSocketConstants.OUTBOUND_SCHEDULER,
+                    new OutboundScheduler(outboundDataWindow));
+        }
+    }
+
+    /**
+     * Adds a handler right after the WebSocket frame encoder of the pipeline, where it sees every frame written to
+     * the connection, including the ones the transport writes from its own handler. The handler is added at the tail
+     * if the pipeline has no frame encoder.
+     */
+    public static void addAfterFrameEncoder(ChannelPipeline pipeline, String name, ChannelHandler handler) {
+        ChannelHandlerContext encoder = pipeline.context(WebSocketFrameEncoder.class);
+        if (encoder == null) {
+            pipeline.addLast(name, handler);
+        } else {
+            pipeline.addAfter(encoder.name(), name, handler);
+        }
+    }
+
+    public static int findMaxQueuedWrites(BMap<BString, Object> configs) {
+        if (!configs.containsKey(WebSocketConstants.ANNOTATION_ATTR_MAX_QUEUED_WRITES)) {
+            return WebSocketConstants.DEFAULT_MAX_QUEUED_WRITES;
+        }
+        long writes = configs.getIntValue(WebSocketConstants.ANNOTATION_ATTR_MAX_QUEUED_WRITES);
+        if (writes <= 0) {
+            return WebSocketConstants.DEFAULT_MAX_QUEUED_WRITES;
+        }
+        return (int) Math.min(writes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads the write buffer water marks from the configuration. A low water mark which is not set defaults to half
+     * of the high water mark, and null is returned when neither is set so that the defaults of the channel apply.
+     */
+    public static WriteBufferWaterMark findWriteBufferWaterMark(BMap<BString, Object> configs) {
+        long high = findMessageSizeLimit(configs, WebSocketConstants.ANNOTATION_ATTR_WRITE_BUFFER_HIGH_WATER_MARK);
+        long low = findMessageSizeLimit(configs, WebSocketConstants.ANNOTATION_ATTR_WRITE_BUFFER_LOW_WATER_MARK);
+        if (high == 0 && low == 0) {
+            return null;
+        }
+        int highWaterMark = high > 0 ? (int) Math.min(high, Integer.MAX_VALUE) : WriteBufferWaterMark.DEFAULT.high();
+        int lowWaterMark = low > 0 ? (int) Math.min(low, highWaterMark) : highWaterMark / 2;
+        return new WriteBufferWaterMark(lowWaterMark, highWaterMark);
+    }
+
+    public static void setWriteBufferWaterMark(WebSocketConnection webSocketConnection,
+            WriteBufferWaterMark writeBufferWaterMark) {
+        if (writeBufferWaterMark != null) {
+            webSocketConnection.getChannel().config().setWriteBufferWaterMark(writeBufferWaterMark);
+        }
+    }
+
+    /**
+     * Reads a duration given in seconds as a decimal and converts it to microseconds. Negative values are read
+     * as zero.
+     */
+    public static long findTimeoutInMicros(BMap<BString, Object> config, BString key) {
+        BigDecimal micros = ((BDecimal) config.get(key)).decimalValue().movePointRight(6);
+        return Math.max(micros.longValue(), 0);
+    }
+
     public static int findTimeoutInSeconds(BMap<BString, Object> config, BString key, int defaultValue) {
         try {
             int timeout = (int) ((BDecimal) config.get(key)).floatValue();
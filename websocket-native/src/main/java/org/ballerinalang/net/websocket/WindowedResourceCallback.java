@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket;
+
+import io.ballerina.runtime.api.values.BError;
+import io.netty.channel.EventLoop;
+import org.ballerinalang.net.transport.contract.websocket.WebSocketConnection;
+import org.ballerinalang.net.websocket.server.DispatchWindow;
+import org.ballerinalang.net.websocket.server.SpillFile;
+import org.ballerinalang.net.websocket.server.WebSocketConnectionInfo;
+
+/**
+ * Callback of a message dispatched within the {@link DispatchWindow} of the connection. The completion is handed to
+ * the window on the event loop of the connection, and the slot of the message is freed instead of reading the next
+ * frame once the returned message has been sent. The slot is also freed when the invocation or the send fails, so
+ * that failed messages do not shrink the window.
+ */
+public class WindowedResourceCallback extends WebSocketResourceCallback {
+
+    private final WebSocketConnection webSocketConnection;
+    private final DispatchWindow window;
+    private final EventLoop eventLoop;
+    private final long sequence;
+
+    WindowedResourceCallback(WebSocketConnectionInfo connectionInfo, String resource, SpillFile spilledMessage,
+            DispatchWindow window) throws IllegalAccessException {
+        super(connectionInfo, resource, spilledMessage);
+        this.webSocketConnection = connectionInfo.getWebSocketConnection();
+        this.window = window;
+        this.eventLoop = webSocketConnection.getChannel().eventLoop();
+        this.sequence = window.acquire();
+    }
+
+    @Override
+    public void notifySuccess(Object result) {
+        eventLoop.execute(() -> window.complete(sequence, () -> super.notifySuccess(result)));
+    }
+
+    @Override
+    public void notifyFailure(BError error) {
+        eventLoop.execute(() -> window.complete(sequence, () -> super.notifyFailure(error)));
+    }
+
+    @Override
+    protected void releaseOnFailure() {
+        readNextFrame();
+    }
+
+    @Override
+    protected void readNextFrame() {
+        if (eventLoop.inEventLoop()) {
+            window.release(webSocketConnection);
+        } else {
+            eventLoop.execute(() -> window.release(webSocketConnection));
+        }
+    }
+}
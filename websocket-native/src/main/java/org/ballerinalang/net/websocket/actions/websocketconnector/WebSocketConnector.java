@@ -17,25 +17,39 @@ package org.ballerinalang.net.websocket.actions.websocketconnector;
 
 import io.ballerina.runtime.api.Environment;
 import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.util.CharsetUtil;
-import io.netty.util.concurrent.ImmediateEventExecutor;
-import io.netty.util.concurrent.PromiseCombiner;
+import org.ballerinalang.net.websocket.ModuleUtils;
+import org.ballerinalang.net.websocket.WebSocketBroadcaster;
 import org.ballerinalang.net.websocket.WebSocketConstants;
+import org.ballerinalang.net.websocket.WebSocketFrameWriter;
 import org.ballerinalang.net.websocket.WebSocketUtil;
 import org.ballerinalang.net.websocket.observability.WebSocketObservabilityConstants;
 import org.ballerinalang.net.websocket.observability.WebSocketObservabilityUtil;
+import org.ballerinalang.net.websocket.server.QueuedWrites;
 import org.ballerinalang.net.websocket.server.WebSocketConnectionInfo;
+import org.ballerinalang.net.websocket.server.WebSocketConnectionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Utilities related to websocket connector actions.
@@ -43,138 +57,353 @@ import java.nio.ByteBuffer;
 public class WebSocketConnector {
     private static final Logger log = LoggerFactory.getLogger(WebSocketConnector.class);
 
-    public static Object externWriteTextMessage(Environment env, BObject wsConnection, BString text) {
+    public static Object externWriteTextMessage(Environment env, BObject wsConnection, BString text, boolean urgent) {
         Future balFuture = env.markAsync();
-        PromiseCombiner promiseCombiner = new PromiseCombiner(ImmediateEventExecutor.INSTANCE);
         WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
                 .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
         WebSocketObservabilityUtil
                 .observeResourceInvocation(env, connectionInfo, WebSocketConstants.WRITE_TEXT_MESSAGE);
-        ByteBuf byteBuf = null;
-        ByteBuf lastSlice = null;
         try {
-            byteBuf = fromText(text.getValue());
-            int noBytes = byteBuf.readableBytes();
-            int index = 0;
-            final int size = (int) connectionInfo.getWebSocketEndpoint()
-                .getNativeData(WebSocketConstants.NATIVE_DATA_MAX_FRAME_SIZE);
-            while (index < noBytes - size) {
-                ByteBuf slice = null;
-                try {
-                    slice = byteBuf.retainedSlice(index, size);
-                    String chunk = slice.toString(CharsetUtil.UTF_8);
-                    ChannelFuture future = connectionInfo.getWebSocketConnection().pushText(chunk, false);
-                    promiseCombiner.add(future);
-                    index += size;
-                } finally {
-                    release(slice);
+            ChannelFuture future = urgent ? WebSocketFrameWriter.writeUrgentText(connectionInfo, text.getValue()) :
+                    WebSocketFrameWriter.writeText(connectionInfo, text.getValue());
+            future.addListener((ChannelFutureListener) channelFuture -> {
+                if (channelFuture.isSuccess()) {
+                    connectionInfo.completeWhenWritable(() ->
+                            WebSocketUtil.handleWebSocketCallback(balFuture, channelFuture, log, connectionInfo));
+                    WebSocketObservabilityUtil
+                            .observeSend(WebSocketObservabilityConstants.MESSAGE_TYPE_TEXT, connectionInfo);
+                } else {
+                    WebSocketUtil.setCallbackFunctionBehaviour(connectionInfo, balFuture, channelFuture.cause());
                 }
-            }
-            lastSlice = byteBuf.retainedSlice(index, noBytes - index);
-            String chunk = lastSlice.toString(CharsetUtil.UTF_8);
-            ChannelFuture future = connectionInfo.getWebSocketConnection().pushText(chunk, true);
-            promiseCombiner.add(future);
-            promiseCombiner.finish(connectionInfo.getWebSocketConnection().getChannel().newPromise()
-                    .addListener((ChannelFutureListener) channelFuture -> {
-                        if (channelFuture.isSuccess()) {
-                            WebSocketUtil.handleWebSocketCallback(balFuture, channelFuture, log, connectionInfo);
-                            WebSocketObservabilityUtil
-                                    .observeSend(WebSocketObservabilityConstants.MESSAGE_TYPE_TEXT, connectionInfo);
-                        } else {
-                            WebSocketUtil.setCallbackFunctionBehaviour(connectionInfo, balFuture, future.cause());
-                        }
-                    }));
+            });
         } catch (IllegalAccessException | IllegalStateException e) {
             log.error("Error occurred when pushing text data", e);
             WebSocketObservabilityUtil.observeError(WebSocketObservabilityUtil.getConnectionInfo(wsConnection),
                     WebSocketObservabilityConstants.ERROR_TYPE_MESSAGE_SENT,
                     WebSocketObservabilityConstants.MESSAGE_TYPE_TEXT, e.getMessage());
             WebSocketUtil.setCallbackFunctionBehaviour(connectionInfo, balFuture, e);
-        } finally {
-            release(byteBuf);
-            release(lastSlice);
         }
         return null;
     }
 
-    public static void release(ByteBuf byteBuf) {
-        if (byteBuf != null) {
-            byteBuf.release();
+    public static Object externWriteTextMessages(Environment env, BObject wsConnection, BArray texts) {
+        Future balFuture = env.markAsync();
+        WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
+                .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
+        WebSocketObservabilityUtil
+                .observeResourceInvocation(env, connectionInfo, WebSocketConstants.WRITE_TEXT_MESSAGES);
+        String[] messages = texts.getStringArray();
+        try {
+            ChannelFuture future = WebSocketFrameWriter.writeTexts(connectionInfo, messages);
+            future.addListener((ChannelFutureListener) channelFuture -> {
+                if (channelFuture.isSuccess()) {
+                    connectionInfo.completeWhenWritable(() ->
+                            WebSocketUtil.handleWebSocketCallback(balFuture, channelFuture, log, connectionInfo));
+                    for (int i = 0; i < messages.length; i++) {
+                        WebSocketObservabilityUtil
+                                .observeSend(WebSocketObservabilityConstants.MESSAGE_TYPE_TEXT, connectionInfo);
+                    }
+                } else {
+                    WebSocketUtil.setCallbackFunctionBehaviour(connectionInfo, balFuture, channelFuture.cause());
+                }
+            });
+        } catch (IllegalAccessException | IllegalStateException e) {
+            log.error("Error occurred when pushing text data", e);
+            WebSocketObservabilityUtil.observeError(WebSocketObservabilityUtil.getConnectionInfo(wsConnection),
+                    WebSocketObservabilityConstants.ERROR_TYPE_MESSAGE_SENT,
+                    WebSocketObservabilityConstants.MESSAGE_TYPE_TEXT, e.getMessage());
+            WebSocketUtil.setCallbackFunctionBehaviour(connectionInfo, balFuture, e);
+        }
+        return null;
+    }
+
+    /**
+     * Queues a text message without waiting for it to be written. If an earlier queued write has failed since the
+     * failures were last drained, the earliest failure is taken and returned and the message is not written. The other
+     * failures are left to be returned by the next queued writes or by drainWriteErrors. The message is not written
+     * either if the maximum number of queued writes are in flight.
+     */
+    public static Object queueTextMessage(BObject wsConnection, BString text) {
+        WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
+                .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
+        QueuedWrites queuedWrites = connectionInfo.createIfNullAndGetQueuedWrites();
+        Object failure = reserveQueuedWrite(queuedWrites);
+        if (failure != null) {
+            return failure;
+        }
+        try {
+            ChannelFuture future = WebSocketFrameWriter.writeText(connectionInfo, text.getValue());
+            future.addListener((ChannelFutureListener) channelFuture -> completeQueuedWrite(queuedWrites,
+                    channelFuture, connectionInfo, WebSocketObservabilityConstants.MESSAGE_TYPE_TEXT));
+        } catch (IllegalAccessException | IllegalStateException e) {
+            queuedWrites.complete(null);
+            return WebSocketUtil.createErrorByType(e);
+        }
+        return null;
+    }
+
+    /**
+     * Queues a binary message without waiting for it to be written, in the same way as a queued text message.
+     */
+    public static Object queueBinaryMessage(BObject wsConnection, BArray binaryData) {
+        WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
+                .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
+        QueuedWrites queuedWrites = connectionInfo.createIfNullAndGetQueuedWrites();
+        Object failure = reserveQueuedWrite(queuedWrites);
+        if (failure != null) {
+            return failure;
+        }
+        try {
+            ChannelFuture future = WebSocketFrameWriter.writeBinary(connectionInfo, binaryData.getBytes());
+            future.addListener((ChannelFutureListener) channelFuture -> completeQueuedWrite(queuedWrites,
+                    channelFuture, connectionInfo, WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY));
+        } catch (IllegalAccessException | IllegalStateException e) {
+            queuedWrites.complete(null);
+            return WebSocketUtil.createErrorByType(e);
+        }
+        return null;
+    }
+
+    private static Object reserveQueuedWrite(QueuedWrites queuedWrites) {
+        if (queuedWrites.hasFailures()) {
+            Throwable failure = queuedWrites.pollFailure();
+            if (failure != null) {
+                return WebSocketUtil.createErrorByType(failure);
+            }
         }
+        if (!queuedWrites.tryQueue()) {
+            return WebSocketUtil.createWebsocketError("Maximum number of queued writes of " +
+                    queuedWrites.getMaxQueuedWrites() + " has been reached",
+                    WebSocketConstants.ErrorCode.WsGenericError);
+        }
+        return null;
     }
 
-    public static ByteBuf fromText(String text) {
-        if (text == null || text.isEmpty()) {
-            return Unpooled.EMPTY_BUFFER;
+    private static void completeQueuedWrite(QueuedWrites queuedWrites, ChannelFuture future,
+            WebSocketConnectionInfo connectionInfo, String messageType) {
+        if (future.isSuccess()) {
+            queuedWrites.complete(null);
+            WebSocketObservabilityUtil.observeSend(messageType, connectionInfo);
         } else {
-            return Unpooled.copiedBuffer(text, CharsetUtil.UTF_8);
+            queuedWrites.complete(future.cause());
+            WebSocketObservabilityUtil.observeError(connectionInfo,
+                    WebSocketObservabilityConstants.ERROR_TYPE_MESSAGE_SENT, messageType, future.cause().getMessage());
         }
     }
 
-    public static ByteBuf fromByteArray(ByteBuffer buffer) {
-        return Unpooled.wrappedBuffer(buffer);
+    /**
+     * Takes the failures of the queued writes of the connection which have not been reported yet.
+     */
+    public static BArray drainWriteErrors(BObject wsConnection) {
+        WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
+                .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
+        List<Throwable> failures = connectionInfo.createIfNullAndGetQueuedWrites().drainFailures();
+        Object[] errors = new Object[failures.size()];
+        for (int i = 0; i < errors.length; i++) {
+            errors[i] = WebSocketUtil.createErrorByType(failures.get(i));
+        }
+        return ValueCreator.createArrayValue(errors, TypeCreator.createArrayType(PredefinedTypes.TYPE_ERROR));
     }
 
-    public static Object writeBinaryMessage(Environment env, BObject wsConnection, BArray binaryData) {
+    public static Object writeBinaryMessage(Environment env, BObject wsConnection, BArray binaryData,
+            boolean urgent) {
         Future balFuture = env.markAsync();
-        PromiseCombiner promiseCombiner = new PromiseCombiner(ImmediateEventExecutor.INSTANCE);
         WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
                 .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
         WebSocketObservabilityUtil
                 .observeResourceInvocation(env, connectionInfo, WebSocketConstants.WRITE_BINARY_MESSAGE);
-        ByteBuf byteBuf = null;
-        ByteBuf lastSlice = null;
         try {
-            byteBuf = fromByteArray(ByteBuffer.wrap(binaryData.getBytes()));
-            int noBytes = byteBuf.readableBytes();
-            int index = 0;
-            final int size = (int) connectionInfo.getWebSocketEndpoint()
-                    .getNativeData(WebSocketConstants.NATIVE_DATA_MAX_FRAME_SIZE);
-            while (index < noBytes - size) {
-                ByteBuf slice = null;
-                try {
-                    slice = byteBuf.retainedSlice(index, size);
-                    byte[] chunk = getByteChunk(size, slice);
-                    ChannelFuture future = connectionInfo.getWebSocketConnection()
-                            .pushBinary(ByteBuffer.wrap(chunk), false);
-                    promiseCombiner.add(future);
-                    index += size;
-                } finally {
-                    release(slice);
+            ChannelFuture future = urgent ? WebSocketFrameWriter.writeUrgentBinary(connectionInfo,
+                    binaryData.getBytes()) : WebSocketFrameWriter.writeBinary(connectionInfo, binaryData.getBytes());
+            future.addListener((ChannelFutureListener) channelFuture -> {
+                if (channelFuture.isSuccess()) {
+                    connectionInfo.completeWhenWritable(() ->
+                            WebSocketUtil.handleWebSocketCallback(balFuture, channelFuture, log, connectionInfo));
+                    WebSocketObservabilityUtil
+                            .observeSend(WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY, connectionInfo);
+                } else {
+                    WebSocketUtil.setCallbackFunctionBehaviour(connectionInfo, balFuture, channelFuture.cause());
                 }
-            }
-            lastSlice = byteBuf.retainedSlice(index, noBytes - index);
-            byte[] finalChunk = getByteChunk(noBytes - index, lastSlice);
-            ChannelFuture webSocketChannelFuture = connectionInfo.getWebSocketConnection()
-                    .pushBinary(ByteBuffer.wrap(finalChunk), true);
-            promiseCombiner.add(webSocketChannelFuture);
-            promiseCombiner.finish(connectionInfo.getWebSocketConnection().getChannel().newPromise()
-                    .addListener((ChannelFutureListener) future -> {
-                        if (future.isSuccess()) {
-                            WebSocketUtil.handleWebSocketCallback(balFuture, future, log, connectionInfo);
-                            WebSocketObservabilityUtil
-                                    .observeSend(WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY, connectionInfo);
-                        } else {
-                            WebSocketUtil.setCallbackFunctionBehaviour(connectionInfo, balFuture, future.cause());
-                        }
-                    }));
+            });
         } catch (IllegalAccessException | IllegalStateException e) {
             log.error("Error occurred when pushing binary data", e);
             WebSocketObservabilityUtil.observeError(WebSocketObservabilityUtil.getConnectionInfo(wsConnection),
                     WebSocketObservabilityConstants.ERROR_TYPE_MESSAGE_SENT,
                     WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY, e.getMessage());
             WebSocketUtil.setCallbackFunctionBehaviour(connectionInfo, balFuture, e);
-        } finally {
-            release(byteBuf);
-            release(lastSlice);
         }
         return null;
     }
 
-    public static byte[] getByteChunk(int size, ByteBuf slice) {
-        byte[] chunk = new byte[size];
-        slice.getBytes(0, chunk);
-        return chunk;
+    public static Object writeBinaryFragment(Environment env, BObject wsConnection, BArray binaryData, boolean first,
+            boolean last) {
+        Future balFuture = env.markAsync();
+        WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
+                .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
+        if (first) {
+            WebSocketObservabilityUtil
+                    .observeResourceInvocation(env, connectionInfo, WebSocketConstants.WRITE_BINARY_STREAM);
+        }
+        try {
+            ChannelFuture future = WebSocketFrameWriter.writeBinaryFragment(connectionInfo, binaryData.getBytes(),
+                    first, last);
+            future.addListener((ChannelFutureListener) channelFuture -> {
+                if (channelFuture.isSuccess()) {
+                    connectionInfo.completeWhenWritable(() ->
+                            WebSocketUtil.handleWebSocketCallback(balFuture, channelFuture, log, connectionInfo));
+                    if (last) {
+                        WebSocketObservabilityUtil
+                                .observeSend(WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY, connectionInfo);
+                    }
+                } else {
+                    WebSocketUtil.setCallbackFunctionBehaviour(connectionInfo, balFuture, channelFuture.cause());
+                }
+            });
+        } catch (IllegalAccessException | IllegalStateException e) {
+            log.error("Error occurred when pushing binary data", e);
+            WebSocketObservabilityUtil.observeError(WebSocketObservabilityUtil.getConnectionInfo(wsConnection),
+                    WebSocketObservabilityConstants.ERROR_TYPE_MESSAGE_SENT,
+                    WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY, e.getMessage());
+            WebSocketUtil.setCallbackFunctionBehaviour(connectionInfo, balFuture, e);
+        }
+        return null;
+    }
+
+    public static Object writeFile(Environment env, BObject wsConnection, BString path, long offset, long length,
+            long fragmentSize) {
+        Future balFuture = env.markAsync();
+        WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
+                .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
+        WebSocketObservabilityUtil.observeResourceInvocation(env, connectionInfo, WebSocketConstants.WRITE_FILE);
+        try {
+            ChannelFuture future = WebSocketFrameWriter.writeFile(connectionInfo, Paths.get(path.getValue()), offset,
+                    length, (int) Math.min(fragmentSize, Integer.MAX_VALUE));
+            future.addListener((ChannelFutureListener) channelFuture -> {
+                if (channelFuture.isSuccess()) {
+                    connectionInfo.completeWhenWritable(() ->
+                            WebSocketUtil.handleWebSocketCallback(balFuture, channelFuture, log, connectionInfo));
+                    WebSocketObservabilityUtil
+                            .observeSend(WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY, connectionInfo);
+                } else {
+                    WebSocketUtil.setCallbackFunctionBehaviour(connectionInfo, balFuture, channelFuture.cause());
+                }
+            });
+        } catch (IOException | InvalidPathException e) {
+            balFuture.complete(WebSocketUtil.createWebsocketError("Error occurred when reading the file: "
+                    + e.getMessage(), WebSocketConstants.ErrorCode.WsGenericError));
+        } catch (IllegalAccessException | IllegalStateException e) {
+            log.error("Error occurred when pushing the file", e);
+            WebSocketObservabilityUtil.observeError(WebSocketObservabilityUtil.getConnectionInfo(wsConnection),
+                    WebSocketObservabilityConstants.ERROR_TYPE_MESSAGE_SENT,
+                    WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY, e.getMessage());
+            WebSocketUtil.setCallbackFunctionBehaviour(connectionInfo, balFuture, e);
+        }
+        return null;
+    }
+
+    public static Object broadcastTextMessage(Environment env, BArray callers, BString text) {
+        return broadcast(env, callers, Unpooled.copiedBuffer(text.getValue(), CharsetUtil.UTF_8), true,
+                WebSocketObservabilityConstants.MESSAGE_TYPE_TEXT);
+    }
+
+    public static Object broadcastBinaryMessage(Environment env, BArray callers, BArray binaryData) {
+        return broadcast(env, callers, Unpooled.wrappedBuffer(binaryData.getBytes()), false,
+                WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY);
+    }
+
+    private static Object broadcast(Environment env, BArray callers, ByteBuf payload, boolean text,
+            String messageType) {
+        List<WebSocketConnectionInfo> connections = new ArrayList<>(callers.size());
+        for (int i = 0; i < callers.size(); i++) {
+            BObject connector = ((BObject) callers.get(i)).getObjectValue(WebSocketConstants.LISTENER_CONNECTOR_FIELD);
+            connections.add((WebSocketConnectionInfo) connector
+                    .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO));
+        }
+        return broadcast(env, connections, payload, text, messageType);
+    }
+
+    /**
+     * Writes a message to the given connections and completes the strand with the number of connections the message
+     * was handed to and the failures of the rest. If the broadcast fails unexpectedly, every connection is reported
+     * as a failure, as which of them the message was handed to is not known.
+     */
+    public static Object broadcast(Environment env, List<WebSocketConnectionInfo> connections, ByteBuf payload,
+            boolean text, String messageType) {
+        Future balFuture = env.markAsync();
+        WebSocketBroadcaster.broadcast(connections, payload, text, messageType).whenComplete((result, cause) -> {
+            BMap<BString, Object> failureMessages = ValueCreator.createMapValue(
+                    TypeCreator.createMapType(PredefinedTypes.TYPE_STRING));
+            long sent;
+            if (cause == null) {
+                sent = result.getSent();
+                result.getFailures().forEach((connectionId, failure) -> failureMessages.put(StringUtils
+                        .fromString(connectionId), StringUtils.fromString(String.valueOf(failure.getMessage()))));
+            } else {
+                log.error("Error occurred when broadcasting the message", cause);
+                sent = 0;
+                BString message = StringUtils.fromString("Error occurred when broadcasting the message: "
+                        + cause.getMessage());
+                for (WebSocketConnectionInfo connectionInfo : connections) {
+                    failureMessages.put(connectionInfo.getWebSocketEndpoint()
+                            .getStringValue(WebSocketConstants.LISTENER_ID_FIELD), message);
+                }
+            }
+            BMap<BString, Object> outcome = ValueCreator.createRecordValue(ModuleUtils.getWebsocketModule(),
+                    WebSocketConstants.BROADCAST_OUTCOME);
+            outcome.put(WebSocketConstants.BROADCAST_SENT_FIELD, sent);
+            outcome.put(WebSocketConstants.BROADCAST_FAILURES_FIELD, failureMessages);
+            balFuture.complete(outcome);
+        });
+        return null;
+    }
+
+    public static Object joinGroup(BObject wsConnection, BString group) {
+        WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
+                .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
+        WebSocketConnectionManager connectionManager = connectionInfo.getConnectionManager();
+        if (connectionManager == null) {
+            return WebSocketUtil.createWebsocketError("Groups are only available for the connections of a listener",
+                    WebSocketConstants.ErrorCode.WsGenericError);
+        }
+        if (!connectionManager.joinGroup(group.getValue(), connectionInfo)) {
+            return WebSocketUtil.createWebsocketError("Connection is closed",
+                    WebSocketConstants.ErrorCode.WsConnectionClosureError);
+        }
+        return null;
+    }
+
+    public static void leaveGroup(BObject wsConnection, BString group) {
+        WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
+                .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
+        WebSocketConnectionManager connectionManager = connectionInfo.getConnectionManager();
+        if (connectionManager != null) {
+            connectionManager.leaveGroup(group.getValue(), connectionInfo);
+        }
+    }
+
+    /**
+     * Gives the number of bytes written to the connection which are not yet written to the socket.
+     */
+    public static long bufferedAmount(BObject wsConnection) {
+        WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
+                .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
+        try {
+            ChannelOutboundBuffer outboundBuffer = connectionInfo.getWebSocketConnection().getChannel().unsafe()
+                    .outboundBuffer();
+            return outboundBuffer == null ? 0 : outboundBuffer.totalPendingWriteBytes();
+        } catch (IllegalAccessException e) {
+            return 0;
+        }
+    }
+
+    public static boolean isWritable(BObject wsConnection) {
+        WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
+                .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
+        try {
+            return connectionInfo.getWebSocketConnection().getChannel().isWritable();
+        } catch (IllegalAccessException e) {
+            return false;
+        }
     }
 
     public static Object ping(Environment env, BObject wsConnection, BArray binaryData) {
@@ -17,6 +17,7 @@ package org.ballerinalang.net.websocket.actions.websocketconnector;
 
 import io.ballerina.runtime.api.Environment;
 import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.values.BDecimal;
 import io.ballerina.runtime.api.values.BObject;
 import org.ballerinalang.net.websocket.WebSocketConstants;
 import org.ballerinalang.net.websocket.WebSocketUtil;
@@ -25,6 +26,10 @@ import org.ballerinalang.net.websocket.server.WebSocketConnectionInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
 import static org.ballerinalang.net.websocket.WebSocketUtil.findTimeoutInSeconds;
 
 /**
@@ -32,6 +37,8 @@ import static org.ballerinalang.net.websocket.WebSocketUtil.findTimeoutInSeconds
  */
 public class WebSocketSyncConnector {
     private static final Logger log = LoggerFactory.getLogger(WebSocketSyncConnector.class);
+    private static final long NO_WAIT = -1;
+    private static final BigDecimal MAX_TIMEOUT_NANOS = BigDecimal.valueOf(Long.MAX_VALUE);
 
     public static Object externReadTextMessage(Environment env, BObject wsConnection) {
         final Future callback = env.markAsync();
@@ -53,9 +60,53 @@ public class WebSocketSyncConnector {
         long readTimeoutInSeconds = findTimeoutInSeconds(
                 connectionInfo.getWebSocketEndpoint().getMapValue(WebSocketConstants.CLIENT_ENDPOINT_CONFIG),
                 WebSocketConstants.ANNOTATION_ATTR_READ_IDLE_TIMEOUT, 0);
-        connectionInfo.getWebSocketConnection().addReadIdleStateHandler(readTimeoutInSeconds);
-        connectorListener.setCallback(callback);
-        connectionInfo.getWebSocketConnection().readNextFrame();
+        connectorListener.read(callback, TimeUnit.SECONDS.toNanos(readTimeoutInSeconds));
+    }
+
+    public static Object externReadTextMessages(Environment env, BObject wsConnection, long maxMessages,
+            BDecimal timeout) {
+        return readBatchFromConnection(env, wsConnection, maxMessages, timeout, true);
+    }
+
+    public static Object externReadBinaryMessages(Environment env, BObject wsConnection, long maxMessages,
+            BDecimal timeout) {
+        return readBatchFromConnection(env, wsConnection, maxMessages, timeout, false);
+    }
+
+    private static Object readBatchFromConnection(Environment env, BObject wsConnection, long maxMessages,
+            BDecimal timeout, boolean text) {
+        if (maxMessages < 1) {
+            return WebSocketUtil.createWebsocketError("The maximum number of messages must be positive",
+                    WebSocketConstants.ErrorCode.WsGenericError);
+        }
+        final Future callback = env.markAsync();
+        WebSocketConnectionInfo connectionInfo = (WebSocketConnectionInfo) wsConnection
+                .getNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO);
+        SyncClientConnectorListener connectorListener = (SyncClientConnectorListener) wsConnection
+                .getNativeData(WebSocketConstants.CLIENT_LISTENER);
+        BigDecimal timeoutInSeconds = timeout.decimalValue();
+        long readTimeoutNanos;
+        if (timeoutInSeconds.signum() < 0) {
+            @SuppressWarnings(WebSocketConstants.UNCHECKED)
+            long configuredTimeout = findTimeoutInSeconds(
+                    connectionInfo.getWebSocketEndpoint().getMapValue(WebSocketConstants.CLIENT_ENDPOINT_CONFIG),
+                    WebSocketConstants.ANNOTATION_ATTR_READ_IDLE_TIMEOUT, 0);
+            readTimeoutNanos = TimeUnit.SECONDS.toNanos(configuredTimeout);
+        } else if (timeoutInSeconds.signum() == 0) {
+            readTimeoutNanos = NO_WAIT;
+        } else {
+            // Rounded up, so that a timeout of less than a nanosecond does not become zero, which waits without a limit
+            readTimeoutNanos = timeoutInSeconds.movePointRight(9).setScale(0, RoundingMode.CEILING)
+                    .min(MAX_TIMEOUT_NANOS).longValue();
+        }
+        try {
+            connectorListener.readBatch(callback, (int) Math.min(maxMessages, Integer.MAX_VALUE), text,
+                    readTimeoutNanos);
+        } catch (IllegalAccessException e) {
+            callback.complete(WebSocketUtil
+                    .createWebsocketError(e.getMessage(), WebSocketConstants.ErrorCode.WsConnectionClosureError));
+        }
+        return null;
     }
 
     public static Object externReadBinaryMessage(Environment env, BObject wsConnection) {
@@ -68,4 +119,13 @@ public class WebSocketSyncConnector {
         }
         return null;
     }
+
+    /**
+     * Gives the number of messages the synchronous client has received which are not yet read.
+     */
+    public static long getReceivedMessageCount(BObject wsSyncClient) {
+        SyncClientConnectorListener connectorListener = (SyncClientConnectorListener) wsSyncClient
+                .getNativeData(WebSocketConstants.CLIENT_LISTENER);
+        return connectorListener.getReceivedMessageCount();
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket.client;
+
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import org.ballerinalang.net.http.HttpUtil;
+import org.ballerinalang.net.transport.contract.HttpWsConnectorFactory;
+import org.ballerinalang.net.transport.contractimpl.DefaultHttpWsConnectorFactory;
+import org.ballerinalang.net.websocket.WebSocketConstants;
+
+/**
+ * Provides the connector factory of the WebSocket clients. Every client shares one factory, and with it one group of
+ * event loops, so the number of client threads stays the same however many clients are created. The group has the
+ * configured number of event loops, or twice the number of available processors if that is not configured, and each
+ * connection is served by one of them for its lifetime. A client configured with isolated event loops gets a factory
+ * of its own as before, which adds a group of event loops for that client.
+ * <p>
+ * The transport factory always creates a server boss group and a server worker group along with its client group.
+ * The shared factory asks for one event loop in each, which the clients never use, so each holds an open selector
+ * but does not start a thread. The client threads are therefore only those of the client group.
+ */
+public class ClientConnectorFactory {
+
+    private static volatile int eventLoopThreads;
+    private static volatile HttpWsConnectorFactory sharedFactory;
+
+    private ClientConnectorFactory() {
+    }
+
+    /**
+     * Sets the number of event loops of the shared client group. It takes effect only if the group has not been
+     * created yet.
+     *
+     * @param threads the number of event loops, where zero or a negative value selects the default
+     */
+    public static void setClientEventLoopThreads(long threads) {
+        eventLoopThreads = (int) Math.max(Math.min(threads, Integer.MAX_VALUE), 0);
+    }
+
+    /**
+     * Returns the connector factory of a client.
+     *
+     * @param clientEndpointConfig the configuration of the client
+     * @return the shared factory, or a new factory if the client uses isolated event loops
+     */
+    public static HttpWsConnectorFactory get(BMap<BString, Object> clientEndpointConfig) {
+        if (clientEndpointConfig.getBooleanValue(WebSocketConstants.ANNOTATION_ATTR_ISOLATED_EVENT_LOOPS)) {
+            return HttpUtil.createHttpWsConnectionFactory();
+        }
+        HttpWsConnectorFactory factory = sharedFactory;
+        if (factory == null) {
+            synchronized (ClientConnectorFactory.class) {
+                factory = sharedFactory;
+                if (factory == null) {
+                    int threads = eventLoopThreads > 0 ? eventLoopThreads :
+                            Runtime.getRuntime().availableProcessors() * 2;
+                    factory = new DefaultHttpWsConnectorFactory(1, 1, threads);
+                    sharedFactory = factory;
+                }
+            }
+        }
+        return factory;
+    }
+
+    /**
+     * Checks whether two clients were given the same connector factory, and therefore the same group of event loops.
+     *
+     * @param firstClient  a client which is initialized
+     * @param secondClient another client which is initialized
+     * @return true if the clients share the factory
+     */
+    public static boolean sharesEventLoops(BObject firstClient, BObject secondClient) {
+        Object firstFactory = firstClient.getNativeData(WebSocketConstants.CONNECTOR_FACTORY);
+        return firstFactory != null && firstFactory == secondClient.getNativeData(WebSocketConstants.CONNECTOR_FACTORY);
+    }
+}
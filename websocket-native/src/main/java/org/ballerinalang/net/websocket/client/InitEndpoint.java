@@ -23,7 +23,6 @@ import io.ballerina.runtime.api.values.BError;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
-import org.ballerinalang.net.http.HttpUtil;
 import org.ballerinalang.net.transport.contract.HttpWsConnectorFactory;
 import org.ballerinalang.net.transport.contract.websocket.WebSocketClientConnector;
 import org.ballerinalang.net.transport.contract.websocket.WebSocketClientConnectorConfig;
@@ -52,7 +51,7 @@ public class InitEndpoint {
             BObject callbackService = webSocketClient.getObjectValue(CLIENT_SERVICE_CONFIG);
             WebSocketService wsService = WebSocketUtil
                     .validateAndCreateWebSocketService(env.getRuntime(), callbackService);
-            HttpWsConnectorFactory connectorFactory = HttpUtil.createHttpWsConnectionFactory();
+            HttpWsConnectorFactory connectorFactory = ClientConnectorFactory.get(clientEndpointConfig);
             WebSocketClientConnectorConfig clientConnectorConfig = new WebSocketClientConnectorConfig(remoteUrl);
             String scheme = URI.create(remoteUrl).getScheme();
             WebSocketUtil.populateClientConnectorConfig(clientEndpointConfig, clientConnectorConfig, scheme);
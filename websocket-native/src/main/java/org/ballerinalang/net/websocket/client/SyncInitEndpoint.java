@@ -53,7 +53,7 @@ public class SyncInitEndpoint {
             BObject callbackService = wsSyncClient.getObjectValue(SYNC_CLIENT_SERVICE_CONFIG);
             WebSocketService wsService = WebSocketUtil
                     .validateAndCreateWebSocketService(env.getRuntime(), callbackService);
-            HttpWsConnectorFactory connectorFactory = HttpUtil.createHttpWsConnectionFactory();
+            HttpWsConnectorFactory connectorFactory = ClientConnectorFactory.get(clientEndpointConfig);
             WebSocketClientConnectorConfig clientConnectorConfig = new WebSocketClientConnectorConfig(remoteUrl);
             String scheme = URI.create(remoteUrl).getScheme();
             populateSyncClientConnectorConfig(clientEndpointConfig, clientConnectorConfig, scheme);
@@ -64,6 +64,8 @@ public class SyncInitEndpoint {
                     clientConnectorConfig.getMaxFrameSize());
             if (wsSyncClient.getNativeData(WebSocketConstants.CLIENT_LISTENER) == null) {
                 SyncClientConnectorListener syncClientConnectorListener = new SyncClientConnectorListener();
+                syncClientConnectorListener.setPrefetchMessages(WebSocketUtil.getIntValue(clientEndpointConfig,
+                        WebSocketConstants.ANNOTATION_ATTR_PREFETCH_MESSAGES, 0));
                 wsSyncClient.addNativeData(WebSocketConstants.CLIENT_LISTENER, syncClientConnectorListener);
             }
             CountDownLatch countDownLatch = new CountDownLatch(1);
@@ -68,6 +68,7 @@ public class ClientConnectorListener implements ExtendedConnectorListener {
 
     @Override
     public void onError(WebSocketConnection webSocketConnection, Throwable throwable) {
+        connectionInfo.releaseAggregators();
         WebSocketResourceDispatcher.dispatchOnError(connectionInfo, throwable, false);
     }
 
@@ -79,6 +80,7 @@ public class ClientConnectorListener implements ExtendedConnectorListener {
     @Override
     public void onClose(WebSocketConnection webSocketConnection) {
         WebSocketObservabilityUtil.observeClose(connectionInfo);
+        connectionInfo.releaseAggregators();
         try {
             WebSocketUtil.setListenerOpenField(connectionInfo);
         } catch (IllegalAccessException e) {
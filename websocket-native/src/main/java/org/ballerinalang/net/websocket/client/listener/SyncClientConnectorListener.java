@@ -18,9 +18,14 @@
 package org.ballerinalang.net.websocket.client.listener;
 
 import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
 import io.ballerina.runtime.api.creators.ValueCreator;
-import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
 import io.ballerina.runtime.api.values.BString;
+import io.netty.channel.EventLoop;
 import org.ballerinalang.net.transport.contract.websocket.WebSocketBinaryMessage;
 import org.ballerinalang.net.transport.contract.websocket.WebSocketCloseMessage;
 import org.ballerinalang.net.transport.contract.websocket.WebSocketConnection;
@@ -34,18 +39,266 @@ import org.ballerinalang.net.websocket.observability.WebSocketObservabilityUtil;
 import org.ballerinalang.net.websocket.server.WebSocketConnectionInfo;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * SyncClientConnectorListener implements {@link ExtendedConnectorListener} interface directly.
- *
+ * <p>
+ * Frames are only read while a read is waiting, unless a prefetch depth is set. In that case, messages are read ahead
+ * into a bounded queue as soon as the connection is opened, so that a read returns right away when a message is
+ * already buffered, and reading pauses while the queue is full. Errors and the closure of the connection are queued
+ * behind the messages received before them.
+ * <p>
+ * A batch read takes all the received messages of one kind, up to a maximum, and only waits when none has been
+ * received.
+ * <p>
+ * The read timeout is a deadline scheduled on the event loop of the connection while a read waits, rather than a
+ * handler added to and removed from the pipeline for each read. Like an idle timeout, it is pushed back by every
+ * frame received, which is checked only when the deadline fires instead of rescheduling it for each frame.
  */
 public class SyncClientConnectorListener implements ExtendedConnectorListener {
 
+    private static final ArrayType STRING_ARRAY_TYPE = TypeCreator.createArrayType(PredefinedTypes.TYPE_STRING);
+    private static final ArrayType BYTE_ARRAYS_TYPE = TypeCreator.createArrayType(
+            TypeCreator.createArrayType(PredefinedTypes.TYPE_BYTE));
+
     private WebSocketConnectionInfo connectionInfo = null;
     private Future callback;
+    // The number of messages the waiting read takes, which is zero for a read of a single message
+    private int batchSize = 0;
+    private boolean textBatch = false;
+    private int prefetchMessages = 0;
+    private final Deque<Object> receivedMessages = new ArrayDeque<>();
+    private boolean reading = false;
+    private boolean finished = false;
+    private ScheduledFuture<?> readDeadline = null;
+    private EventLoop readDeadlineExecutor = null;
+    private long readTimeoutNanos = 0;
+    private volatile long lastFrameNanos = 0;
 
-    public void setConnectionInfo(WebSocketConnectionInfo connectionInfo) {
+    public synchronized void setConnectionInfo(WebSocketConnectionInfo connectionInfo) {
         this.connectionInfo = connectionInfo;
+        if (prefetchMessages > 0) {
+            try {
+                reading = true;
+                connectionInfo.getWebSocketConnection().readNextFrame();
+            } catch (IllegalAccessException e) {
+                reading = false;
+            }
+        }
+    }
+
+    /**
+     * Sets the number of messages which are read ahead of the reads of the user. Zero disables the prefetching.
+     */
+    public void setPrefetchMessages(int prefetchMessages) {
+        this.prefetchMessages = prefetchMessages;
+    }
+
+    /**
+     * Gives the number of received messages, errors and closures which are queued for the reads of the user.
+     */
+    public synchronized int getReceivedMessageCount() {
+        return receivedMessages.size();
+    }
+
+    /**
+     * Completes the callback with the next received message if there is one, and otherwise waits for the next
+     * message to be received.
+     *
+     * @param callback         the callback of the read
+     * @param readTimeoutNanos the time to wait for a message in nanoseconds, or zero to wait without a limit
+     * @throws IllegalAccessException if the connection is not available
+     */
+    public synchronized void read(Future callback, long readTimeoutNanos) throws IllegalAccessException {
+        Object message = receivedMessages.poll();
+        if (message != null) {
+            readAhead();
+            callback.complete(message);
+            return;
+        }
+        waitForMessage(callback, readTimeoutNanos, 0, false);
+    }
+
+    /**
+     * Completes the callback with the received messages of the given kind, up to the given number, without waiting
+     * if at least one has been received. Otherwise waits for the next message to be received. The batch ends at the
+     * first message of the other kind or error, which is left for the next read unless it comes first. If nothing has
+     * been received and the read is not to wait, the callback is completed with an empty batch.
+     *
+     * @param callback         the callback of the read
+     * @param maxMessages      the maximum number of messages to take
+     * @param text             whether text messages are read, rather than binary messages
+     * @param readTimeoutNanos the time to wait for a message in nanoseconds, zero to wait without a limit, or a
+     *                         negative value to not wait
+     * @throws IllegalAccessException if the connection is not available
+     */
+    public synchronized void readBatch(Future callback, int maxMessages, boolean text, long readTimeoutNanos)
+            throws IllegalAccessException {
+        List<Object> messages = new ArrayList<>();
+        while (messages.size() < maxMessages && isMessageOfKind(receivedMessages.peek(), text)) {
+            messages.add(receivedMessages.poll());
+        }
+        if (!messages.isEmpty()) {
+            readAhead();
+            callback.complete(createBatch(messages, text));
+            return;
+        }
+        Object next = receivedMessages.peek();
+        if (next instanceof BError) {
+            receivedMessages.poll();
+            callback.complete(next);
+            return;
+        }
+        if (next != null) {
+            callback.complete(createKindMismatchError(text));
+            return;
+        }
+        if (readTimeoutNanos < 0 && !finished) {
+            callback.complete(createBatch(Collections.emptyList(), text));
+            return;
+        }
+        waitForMessage(callback, readTimeoutNanos, maxMessages, text);
+    }
+
+    private void waitForMessage(Future callback, long readTimeoutNanos, int batchSize, boolean textBatch)
+            throws IllegalAccessException {
+        if (finished) {
+            callback.complete(WebSocketUtil.createWebsocketError("Connection already closed",
+                    WebSocketConstants.ErrorCode.WsConnectionClosureError));
+            return;
+        }
+        WebSocketConnection webSocketConnection = connectionInfo.getWebSocketConnection();
+        armReadDeadline(webSocketConnection.getChannel().eventLoop(), readTimeoutNanos);
+        this.callback = callback;
+        this.batchSize = batchSize;
+        this.textBatch = textBatch;
+        if (!reading) {
+            reading = true;
+            webSocketConnection.readNextFrame();
+        }
+    }
+
+    private static boolean isMessageOfKind(Object message, boolean text) {
+        return text ? message instanceof BString : message instanceof BArray;
+    }
+
+    private static BArray createBatch(List<Object> messages, boolean text) {
+        return ValueCreator.createArrayValue(messages.toArray(), text ? STRING_ARRAY_TYPE : BYTE_ARRAYS_TYPE);
+    }
+
+    private static BError createKindMismatchError(boolean text) {
+        return WebSocketUtil.createWebsocketError("The next message is a " + (text ? "binary" : "text")
+                + " message", WebSocketConstants.ErrorCode.WsGenericError);
+    }
+
+    /**
+     * Hands a message to the waiting read, or queues it if no read is waiting.
+     *
+     * @return true if a waiting read was completed
+     */
+    private synchronized boolean deliver(Object message) {
+        if (callback == null) {
+            receivedMessages.add(message);
+            return false;
+        }
+        Future waitingCallback = callback;
+        callback = null;
+        disarmReadDeadline();
+        if (batchSize == 0 || message instanceof BError) {
+            waitingCallback.complete(message);
+        } else if (isMessageOfKind(message, textBatch)) {
+            waitingCallback.complete(createBatch(Collections.singletonList(message), textBatch));
+        } else {
+            receivedMessages.add(message);
+            waitingCallback.complete(createKindMismatchError(textBatch));
+        }
+        return true;
+    }
+
+    private synchronized void deliverMessage(Object message) {
+        deliver(message);
+        reading = false;
+        readAhead();
+    }
+
+    private synchronized boolean deliverError(BError error) {
+        reading = false;
+        return deliver(error);
+    }
+
+    /**
+     * Delivers an error after which the connection cannot be read any more, so that the later reads fail at once.
+     */
+    private synchronized boolean deliverClosure(BError error) {
+        finished = true;
+        return deliverError(error);
+    }
+
+    private synchronized void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        reading = false;
+        if (callback != null) {
+            deliver(WebSocketUtil.createWebsocketError("Connection closed",
+                    WebSocketConstants.ErrorCode.WsConnectionClosureError));
+        }
+    }
+
+    private void armReadDeadline(EventLoop eventLoop, long readTimeoutNanos) {
+        if (readTimeoutNanos <= 0) {
+            return;
+        }
+        this.readTimeoutNanos = readTimeoutNanos;
+        readDeadlineExecutor = eventLoop;
+        lastFrameNanos = System.nanoTime();
+        readDeadline = eventLoop.schedule(this::onReadDeadline, readTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void disarmReadDeadline() {
+        if (readDeadline != null) {
+            readDeadline.cancel(false);
+            readDeadline = null;
+        }
+    }
+
+    /**
+     * Times out the waiting read, unless a frame has been received since the deadline was set, in which case the
+     * deadline is moved to the read timeout after that frame.
+     */
+    private synchronized void onReadDeadline() {
+        if (callback == null) {
+            return;
+        }
+        long remainingNanos = readTimeoutNanos - (System.nanoTime() - lastFrameNanos);
+        if (remainingNanos > 0) {
+            readDeadline = readDeadlineExecutor.schedule(this::onReadDeadline, remainingNanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+        deliver(WebSocketUtil.createWebsocketError("Read timed out", WebSocketConstants.ErrorCode.ReadTimedOutError));
+    }
+
+    /**
+     * Reads the next frame if messages are prefetched and the queue is not full.
+     */
+    private void readAhead() {
+        if (reading || finished || prefetchMessages <= 0 || receivedMessages.size() >= prefetchMessages) {
+            return;
+        }
+        try {
+            reading = true;
+            connectionInfo.getWebSocketConnection().readNextFrame();
+        } catch (IllegalAccessException e) {
+            reading = false;
+        }
     }
 
     @Override
@@ -53,48 +306,71 @@ public class SyncClientConnectorListener implements ExtendedConnectorListener {
 
     @Override
     public void onMessage(WebSocketTextMessage webSocketTextMessage) {
+        lastFrameNanos = System.nanoTime();
         try {
             WebSocketConnectionInfo.StringAggregator stringAggregator = connectionInfo
                     .createIfNullAndGetStringAggregator();
             boolean finalFragment = webSocketTextMessage.isFinalFragment();
             if (finalFragment) {
                 stringAggregator.appendAggregateString(webSocketTextMessage.getText());
-                BString txtMsg = StringUtils.fromString(stringAggregator.getAggregateString());
+                if (stringAggregator.isMaxMessageSizeExceeded()) {
+                    failOnMessageTooBig();
+                    return;
+                }
+                BString txtMsg = stringAggregator.getAggregateString();
                 stringAggregator.resetAggregateString();
-                callback.complete(txtMsg);
-                connectionInfo.getWebSocketConnection().removeReadIdleStateHandler();
+                deliverMessage(txtMsg);
             } else {
                 stringAggregator.appendAggregateString(webSocketTextMessage.getText());
+                if (stringAggregator.isMaxMessageSizeExceeded()) {
+                    failOnMessageTooBig();
+                    return;
+                }
                 connectionInfo.getWebSocketConnection().readNextFrame();
             }
         } catch (IllegalAccessException e) {
-            callback.complete(WebSocketUtil
+            deliverClosure(WebSocketUtil
                     .createWebsocketError(e.getMessage(), WebSocketConstants.ErrorCode.WsConnectionClosureError));
         }
     }
 
     @Override
     public void onMessage(WebSocketBinaryMessage webSocketBinaryMessage) {
+        lastFrameNanos = System.nanoTime();
         try {
             WebSocketConnectionInfo.ByteArrAggregator byteArrAggregator = connectionInfo
                     .createIfNullAndGetByteArrAggregator();
             boolean finalFragment = webSocketBinaryMessage.isFinalFragment();
             if (finalFragment) {
-                byteArrAggregator.appendAggregateArr(webSocketBinaryMessage.getByteArray());
+                byteArrAggregator.appendAggregateArr(webSocketBinaryMessage.getByteBuffer());
+                if (byteArrAggregator.isMaxMessageSizeExceeded()) {
+                    failOnMessageTooBig();
+                    return;
+                }
                 byte[] binMsg = byteArrAggregator.getAggregateByteArr();
                 byteArrAggregator.resetAggregateByteArr();
-                callback.complete(ValueCreator.createArrayValue(binMsg));
-                connectionInfo.getWebSocketConnection().removeReadIdleStateHandler();
+                deliverMessage(ValueCreator.createArrayValue(binMsg));
             } else {
-                byteArrAggregator.appendAggregateArr(webSocketBinaryMessage.getByteArray());
+                byteArrAggregator.appendAggregateArr(webSocketBinaryMessage.getByteBuffer());
+                if (byteArrAggregator.isMaxMessageSizeExceeded()) {
+                    failOnMessageTooBig();
+                    return;
+                }
                 connectionInfo.getWebSocketConnection().readNextFrame();
             }
         } catch (IllegalAccessException | IOException e) {
-            callback.complete(WebSocketUtil
+            deliverClosure(WebSocketUtil
                     .createWebsocketError(e.getMessage(), WebSocketConstants.ErrorCode.WsConnectionClosureError));
         }
     }
 
+    private void failOnMessageTooBig() throws IllegalAccessException {
+        connectionInfo.releaseAggregators();
+        deliverClosure(WebSocketUtil.createErrorByType(
+                WebSocketUtil.createMessageTooBigException(connectionInfo.getMaxMessageSize())));
+        WebSocketUtil.closeDuringMessageTooBig(connectionInfo.getWebSocketConnection());
+    }
+
     @Override
     public void onMessage(WebSocketControlMessage webSocketControlMessage) {
         WebSocketResourceDispatcher.dispatchOnPingOnPong(connectionInfo, webSocketControlMessage, false);
@@ -107,51 +383,39 @@ public class SyncClientConnectorListener implements ExtendedConnectorListener {
             String closeReason = webSocketCloseMessage.getCloseReason().equals("") ?
                     "Connection closed: Status code: " + closeCode :
                     webSocketCloseMessage.getCloseReason() + ": Status code: " + closeCode;
-            callback.complete(WebSocketUtil
+            deliverClosure(WebSocketUtil
                     .createWebsocketError(closeReason, WebSocketConstants.ErrorCode.WsConnectionClosureError));
 
             WebSocketConnection wsConnection = connectionInfo.getWebSocketConnection();
-            wsConnection.removeReadIdleStateHandler();
             WebSocketResourceDispatcher.finishConnectionClosureIfOpen(wsConnection, closeCode, connectionInfo);
         } catch (IllegalAccessException e) {
-            callback.complete(WebSocketUtil.createWebsocketError("Connection already closed",
+            deliverClosure(WebSocketUtil.createWebsocketError("Connection already closed",
                     WebSocketConstants.ErrorCode.WsConnectionClosureError));
         }
     }
 
     @Override
     public void onError(WebSocketConnection webSocketConnection, Throwable throwable) {
-        try {
-            callback.complete(WebSocketUtil
-                    .createWebsocketError(throwable.getMessage(), WebSocketConstants.ErrorCode.WsGenericError));
-            connectionInfo.getWebSocketConnection().removeReadIdleStateHandler();
-        } catch (IllegalAccessException e) {
+        connectionInfo.releaseAggregators();
+        deliverError(WebSocketUtil
+                .createWebsocketError(throwable.getMessage(), WebSocketConstants.ErrorCode.WsGenericError));
+        if (webSocketConnection == null) {
             connectionInfo.getWebSocketEndpoint().set(WebSocketConstants.LISTENER_IS_OPEN_FIELD, false);
         }
     }
 
     @Override
-    public void onIdleTimeout(WebSocketControlMessage controlMessage) {
-        try {
-            callback.complete(WebSocketUtil
-                    .createWebsocketError("Read timed out", WebSocketConstants.ErrorCode.ReadTimedOutError));
-            connectionInfo.getWebSocketConnection().removeReadIdleStateHandler();
-        } catch (IllegalAccessException e) {
-            // Ignore as it is not possible have an Illegal access
-        }
-    }
+    public void onIdleTimeout(WebSocketControlMessage controlMessage) {}
 
     @Override
     public void onClose(WebSocketConnection webSocketConnection) {
         WebSocketObservabilityUtil.observeClose(connectionInfo);
+        connectionInfo.releaseAggregators();
+        finish();
         try {
             WebSocketUtil.setListenerOpenField(connectionInfo);
         } catch (IllegalAccessException e) {
             // Ignore as at this point connection closure error is returned to the user
         }
     }
-
-    public void setCallback(Future callback) {
-        this.callback = callback;
-    }
 }
@@ -20,16 +20,17 @@ package org.ballerinalang.net.websocket.client.listener;
 
 import io.ballerina.runtime.api.async.Callback;
 import io.ballerina.runtime.api.creators.ValueCreator;
-import io.ballerina.runtime.api.types.MethodType;
-import io.ballerina.runtime.api.types.Type;
 import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
 import org.ballerinalang.net.http.HttpUtil;
 import org.ballerinalang.net.transport.contract.websocket.WebSocketConnection;
 import org.ballerinalang.net.transport.message.HttpCarbonResponse;
 import org.ballerinalang.net.websocket.ModuleUtils;
 import org.ballerinalang.net.websocket.WebSocketConstants;
+import org.ballerinalang.net.websocket.WebSocketResourceBinder;
 import org.ballerinalang.net.websocket.WebSocketService;
 import org.ballerinalang.net.websocket.WebSocketUtil;
 import org.ballerinalang.net.websocket.client.FailoverContext;
@@ -94,12 +95,9 @@ public class WebSocketHandshakeListener implements ExtendedHandshakeListener {
     private static void dispatchClientOnOpen(WebSocketConnection webSocketConnection,
             WebSocketConnectionInfo connectionInfo, WebSocketService wsService) {
         BObject dispatchingService = wsService.getBalService();
-        MethodType onOpenResource = wsService.getResourceByName(RESOURCE_NAME_ON_OPEN);
+        WebSocketResourceBinder onOpenResource = wsService.getDispatchTable().getOnOpen();
         if (onOpenResource != null) {
-            Type[] parameterTypes = onOpenResource.getParameterTypes();
-            Object[] bValues = new Object[parameterTypes.length * 2];
-            bValues[0] = connectionInfo.getWebSocketEndpoint();
-            bValues[1] = true;
+            Object[] bValues = onOpenResource.bind(connectionInfo.getWebSocketEndpoint());
             Callback onOpenCallback = new Callback() {
                 @Override
                 public void notifySuccess(Object result) {
@@ -145,6 +143,22 @@ public class WebSocketHandshakeListener implements ExtendedHandshakeListener {
             BObject webSocketConnector,
             BObject webSocketClient, WebSocketService wsService) {
         this.connectionInfo = new WebSocketConnectionInfo(wsService, webSocketConnection, webSocketClient);
+        @SuppressWarnings(WebSocketConstants.UNCHECKED)
+        BMap<BString, Object> clientConfig = webSocketClient.getMapValue(CLIENT_ENDPOINT_CONFIG);
+        long maxMessageSize = WebSocketUtil.findMessageSizeLimit(clientConfig,
+                WebSocketConstants.ANNOTATION_ATTR_MAX_MESSAGE_SIZE);
+        connectionInfo.setMessageSizeLimits(maxMessageSize, 0);
+        if (webSocketConnection != null) {
+            connectionInfo.trackCloseFrames();
+            WebSocketUtil.consolidateFlushes(webSocketConnection, WebSocketUtil.findMaxUnflushedWrites(clientConfig));
+            WebSocketUtil.setWriteBufferWaterMark(webSocketConnection,
+                    WebSocketUtil.findWriteBufferWaterMark(clientConfig));
+            connectionInfo.setWaitUntilWritable(
+                    clientConfig.getBooleanValue(WebSocketConstants.ANNOTATION_ATTR_WAIT_UNTIL_WRITABLE));
+            connectionInfo.setMaxQueuedWrites(WebSocketUtil.findMaxQueuedWrites(clientConfig));
+            WebSocketUtil.scheduleOutboundFrames(webSocketConnection,
+                    WebSocketUtil.findOutboundDataWindow(clientConfig));
+        }
         webSocketConnector.addNativeData(WebSocketConstants.NATIVE_DATA_WEBSOCKET_CONNECTION_INFO, connectionInfo);
         webSocketConnector.addNativeData(WebSocketConstants.CLIENT_LISTENER,
                 webSocketClient.getNativeData(WebSocketConstants.CLIENT_LISTENER));
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket.server;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+
+/**
+ * Watches the frames written to a connection and marks the connection info as closed once a close frame has been
+ * written, whether by this module or by the transport, or once the connection has become inactive. The frames which
+ * the frame writer writes to the channel itself do not pass the state checks of the transport connection, so the
+ * writer checks this state instead. The tracker sits right after the frame encoder, where it sees the frames written
+ * from every handler of the pipeline.
+ */
+public class CloseFrameTracker extends ChannelDuplexHandler {
+
+    private final WebSocketConnectionInfo connectionInfo;
+
+    CloseFrameTracker(WebSocketConnectionInfo connectionInfo) {
+        this.connectionInfo = connectionInfo;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (msg instanceof CloseWebSocketFrame) {
+            connectionInfo.setCloseSent();
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        connectionInfo.setCloseSent();
+        ctx.fireChannelInactive();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket.server;
+
+import org.ballerinalang.net.transport.contract.websocket.WebSocketConnection;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounds the number of messages of a connection which are dispatched and not yet completed. The next frame is read
+ * ahead as long as the window has room, instead of after the previous message has been handled. In the ordered mode
+ * the completions, which send the messages returned by the service, are applied in the order the messages arrived.
+ * The state is only accessed from the event loop of the connection.
+ */
+public class DispatchWindow {
+
+    private final int size;
+    private final boolean ordered;
+    private final Map<Long, Runnable> pendingCompletions = new HashMap<>();
+    private int inFlight = 0;
+    private boolean readPending = false;
+    private long nextSequence = 0;
+    private long nextCompletion = 0;
+
+    DispatchWindow(int size, boolean ordered) {
+        this.size = size;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Registers a message which is about to be dispatched.
+     *
+     * @return the sequence number of the message, in the order of arrival
+     */
+    public long acquire() {
+        readPending = false;
+        inFlight++;
+        return nextSequence++;
+    }
+
+    /**
+     * Applies the completion of a message, or defers it until the completions of the earlier messages have been
+     * applied when the window is ordered.
+     */
+    public void complete(long sequence, Runnable completion) {
+        if (!ordered) {
+            completion.run();
+            return;
+        }
+        pendingCompletions.put(sequence, completion);
+        Runnable next;
+        while ((next = pendingCompletions.remove(nextCompletion)) != null) {
+            nextCompletion++;
+            next.run();
+        }
+    }
+
+    /**
+     * Frees the slot of a message whose completion has been applied and reads ahead if the window has room.
+     */
+    public void release(WebSocketConnection webSocketConnection) {
+        inFlight--;
+        readAhead(webSocketConnection);
+    }
+
+    /**
+     * Requests the next frame unless one is already requested or the window is full.
+     */
+    public void readAhead(WebSocketConnection webSocketConnection) {
+        if (!readPending && inFlight < size) {
+            readPending = true;
+            webSocketConnection.readNextFrame();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket.server;
+
+import io.netty.channel.EventLoop;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages of a connection collected for a single invocation of {@code onTextMessages} or {@code onBinaryMessages}.
+ * A batch is dispatched when it reaches the maximum batch size or when the linger time of its first message has
+ * elapsed, and only one batch of a connection is dispatched at a time. The state is only accessed from the event
+ * loop of the connection.
+ */
+public class MessageBatch {
+
+    private final int maxBatchSize;
+    private final long lingerMicros;
+    private List<Object> messages;
+    private ScheduledFuture<?> lingerTask = null;
+    private boolean inFlight = false;
+
+    MessageBatch(int maxBatchSize, long lingerMicros) {
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMicros = lingerMicros;
+        this.messages = new ArrayList<>(maxBatchSize);
+    }
+
+    public void add(Object message) {
+        messages.add(message);
+    }
+
+    public boolean isEmpty() {
+        return messages.isEmpty();
+    }
+
+    public boolean isFull() {
+        return messages.size() >= maxBatchSize;
+    }
+
+    /**
+     * Takes the messages collected so far, leaving the batch empty for the messages that follow.
+     */
+    public List<Object> drain() {
+        cancelLinger();
+        List<Object> drained = messages;
+        messages = new ArrayList<>(maxBatchSize);
+        return drained;
+    }
+
+    /**
+     * Schedules the dispatch of a partially filled batch, unless it is already scheduled.
+     */
+    public void scheduleLinger(EventLoop eventLoop, Runnable dispatch) {
+        if (lingerTask == null) {
+            lingerTask = eventLoop.schedule(() -> {
+                lingerTask = null;
+                dispatch.run();
+            }, lingerMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    private void cancelLinger() {
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+    }
+
+    public boolean isInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(boolean inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    void release() {
+        cancelLinger();
+        messages.clear();
+    }
+}
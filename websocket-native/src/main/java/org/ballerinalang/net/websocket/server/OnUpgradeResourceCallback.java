@@ -62,19 +62,15 @@ public class OnUpgradeResourceCallback implements Callback {
             ServerHandshakeFuture future = webSocketHandshaker
                     .handshake(wsService.getNegotiableSubProtocols(), wsService.getIdleTimeoutInSeconds() * 1000,
                             headers, wsService.getMaxFrameSize());
-            future.setHandshakeListener(new UpgradeListener(wsService, connectionManager, result));
+            future.setHandshakeListener(new UpgradeListener(wsService, connectionManager, (BObject) result));
         } else {
             // If the acceptWebSocketUpgrade function has not been called inside the upgrade resource
             if (!webSocketHandshaker.isCancelled()) {
 
                 WebSocketConnectionInfo connectionInfo =
                         connectionManager.getConnectionInfo(webSocketHandshaker.getChannelId());
-                try {
-                    WebSocketResourceDispatcher.dispatchOnOpen(connectionInfo.getWebSocketConnection(),
-                            connectionInfo.getWebSocketEndpoint(), wsService);
-                } catch (IllegalAccessException e) {
-                    // Ignore as it is not possible have an Illegal access
-                }
+                connectionInfo.setDispatchingService((BObject) result);
+                WebSocketResourceDispatcher.dispatchOnOpen(connectionInfo);
             }
         }
     }
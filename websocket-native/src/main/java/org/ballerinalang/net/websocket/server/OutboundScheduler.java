@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket.server;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.PendingWriteQueue;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import org.ballerinalang.net.websocket.WebSocketConstants;
+
+import java.nio.channels.ClosedChannelException;
+
+/**
+ * Schedules the outbound frames of a connection so that pings and pongs are not held back behind large messages.
+ * Data frames are only handed further down the pipeline while fewer than the window size of their bytes are in
+ * flight, and the rest wait in the scheduler, so a ping or a pong, which is passed through right away, is sent after
+ * at most a window of data. Data frames are taken from two lanes: messages written as urgent are sent ahead of the
+ * normal messages which have not started yet. The lane is only switched at a message boundary, since the frames of
+ * different messages can not be interleaved. Close frames go through the normal lane, so that the messages written
+ * before a close are still sent. The scheduler sits right after the frame encoder, so every frame written to the
+ * connection passes through it, whether it is written to the channel or by the transport from its own handler. The
+ * frames waiting in the scheduler count towards the outbound buffer of the channel, and the lanes are only accessed
+ * from the event loop of the connection.
+ */
+public class OutboundScheduler extends ChannelDuplexHandler {
+
+    private final int windowSize;
+    private PendingWriteQueue urgentLane;
+    private PendingWriteQueue normalLane;
+    private PendingWriteQueue currentLane;
+    private ChannelHandlerContext ctx;
+    private long inFlightBytes;
+
+    public OutboundScheduler(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * @return the scheduler of the channel or null if its frames are not scheduled
+     */
+    public static OutboundScheduler get(Channel channel) {
+        return (OutboundScheduler) channel.pipeline().get(WebSocketConstants.OUTBOUND_SCHEDULER);
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+        urgentLane = new PendingWriteQueue(ctx);
+        normalLane = new PendingWriteQueue(ctx);
+    }
+
+    /**
+     * Writes a frame of an urgent message. This must be called from the event loop of the connection.
+     *
+     * @param frame the frame to write
+     * @return a future which completes when the frame has been written
+     */
+    public ChannelFuture writeUrgent(WebSocketFrame frame) {
+        ChannelPromise promise = ctx.newPromise();
+        urgentLane.add(frame, promise);
+        schedule();
+        return promise;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (!(msg instanceof WebSocketFrame) || msg instanceof PingWebSocketFrame
+                || msg instanceof PongWebSocketFrame) {
+            ctx.write(msg, promise);
+            return;
+        }
+        normalLane.add(msg, promise);
+        schedule();
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        schedule();
+        ctx.flush();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        failPendingFrames();
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        failPendingFrames();
+    }
+
+    /**
+     * Hands data frames further down the pipeline while the window allows it. At least one frame is always allowed
+     * to be in flight, so a frame larger than the window is still sent.
+     *
+     * @return true if a frame was handed down
+     */
+    private boolean schedule() {
+        boolean scheduled = false;
+        PendingWriteQueue lane;
+        while (inFlightBytes < windowSize && (lane = nextLane()) != null) {
+            WebSocketFrame frame = (WebSocketFrame) lane.current();
+            int frameSize = frame.content().readableBytes();
+            currentLane = frame.isFinalFragment() ? null : lane;
+            inFlightBytes += frameSize;
+            lane.removeAndWrite().addListener((ChannelFutureListener) future -> {
+                inFlightBytes -= frameSize;
+                if (schedule()) {
+                    ctx.flush();
+                }
+            });
+            scheduled = true;
+        }
+        return scheduled;
+    }
+
+    private PendingWriteQueue nextLane() {
+        if (currentLane != null) {
+            return currentLane.isEmpty() ? null : currentLane;
+        }
+        if (!urgentLane.isEmpty()) {
+            return urgentLane;
+        }
+        return normalLane.isEmpty() ? null : normalLane;
+    }
+
+    private void failPendingFrames() {
+        ClosedChannelException cause = new ClosedChannelException();
+        urgentLane.removeAndFailAll(cause);
+        normalLane.removeAndFailAll(cause);
+        currentLane = null;
+    }
+}
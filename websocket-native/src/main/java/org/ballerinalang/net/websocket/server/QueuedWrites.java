@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the writes of a connection which are queued without waiting for their completion. The number of such writes
+ * in flight is bounded, and the failures of the writes are kept until they are reported, either on the next queued
+ * write or when they are drained. Only the first failures since they were last drained are kept, as the rest of a
+ * burst of failures usually share their cause.
+ */
+public class QueuedWrites {
+    private static final int MAX_RETAINED_FAILURES = 64;
+
+    private final int maxQueuedWrites;
+    private final AtomicInteger queuedWrites = new AtomicInteger();
+    private final AtomicInteger failureCount = new AtomicInteger();
+    private final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+    QueuedWrites(int maxQueuedWrites) {
+        this.maxQueuedWrites = maxQueuedWrites;
+    }
+
+    /**
+     * Reserves a place for a write.
+     *
+     * @return false if the maximum number of writes are already in flight
+     */
+    public boolean tryQueue() {
+        int queued;
+        do {
+            queued = queuedWrites.get();
+            if (queued >= maxQueuedWrites) {
+                return false;
+            }
+        } while (!queuedWrites.compareAndSet(queued, queued + 1));
+        return true;
+    }
+
+    /**
+     * Releases the place of a write once it has completed.
+     *
+     * @param cause the cause of the failure of the write or null if it succeeded
+     */
+    public void complete(Throwable cause) {
+        if (cause != null && failureCount.getAndIncrement() < MAX_RETAINED_FAILURES) {
+            failures.add(cause);
+        }
+        queuedWrites.decrementAndGet();
+    }
+
+    public boolean hasFailures() {
+        return failureCount.get() > 0;
+    }
+
+    /**
+     * Takes the earliest failure reported so far, leaving the others to be reported later.
+     *
+     * @return the failure or null if no failure is retained
+     */
+    public Throwable pollFailure() {
+        Throwable cause = failures.poll();
+        if (cause != null) {
+            failureCount.decrementAndGet();
+        }
+        return cause;
+    }
+
+    /**
+     * Takes the failures reported so far.
+     *
+     * @return the retained failures in the order they occurred
+     */
+    public List<Throwable> drainFailures() {
+        int count = failureCount.getAndSet(0);
+        List<Throwable> drained = new ArrayList<>(Math.min(count, MAX_RETAINED_FAILURES));
+        Throwable cause;
+        while ((cause = failures.poll()) != null) {
+            drained.add(cause);
+        }
+        return drained;
+    }
+
+    public int getMaxQueuedWrites() {
+        return maxQueuedWrites;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Temporary file a binary message is aggregated into once it grows beyond the spill threshold of the connection.
+ * The fragments are appended with positional channel writes, so they are copied into the page cache instead of a
+ * heap array that has to hold the complete message, and no mapping outlives the file. The file is deleted when the
+ * message has been dispatched.
+ */
+public class SpillFile {
+    private static final Logger log = LoggerFactory.getLogger(SpillFile.class);
+    private static final String FILE_PREFIX = "ballerina-websocket-";
+    private static final String FILE_SUFFIX = ".bin";
+
+    private final Path path;
+    private FileChannel channel;
+    private long length;
+
+    private SpillFile(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    static SpillFile create() throws IOException {
+        Path path = Files.createTempFile(FILE_PREFIX, FILE_SUFFIX);
+        try {
+            return new SpillFile(path, FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    void write(ByteBuffer fragment) throws IOException {
+        ByteBuffer source = fragment.duplicate();
+        while (source.hasRemaining()) {
+            length += channel.write(source, length);
+        }
+    }
+
+    /**
+     * Closes the file for writing.
+     */
+    void finish() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Closes and removes the file. Failures are logged, as the message has already been handled at this point.
+     */
+    public void delete() {
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete the spill file {}", path, e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getLength() {
+        return length;
+    }
+}
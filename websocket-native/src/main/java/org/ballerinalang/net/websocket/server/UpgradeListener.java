@@ -34,11 +34,11 @@ class UpgradeListener implements ServerHandshakeListener {
     private static final Logger logger = LoggerFactory.getLogger(UpgradeListener.class);
 
     private final WebSocketServerService wsService;
-    private final Object dispatchingService;
+    private final BObject dispatchingService;
     private final WebSocketConnectionManager connectionManager;
 
     UpgradeListener(WebSocketServerService wsService, WebSocketConnectionManager connectionManager,
-            Object dispatchingService) {
+            BObject dispatchingService) {
         this.wsService = wsService;
         this.connectionManager = connectionManager;
         this.dispatchingService = dispatchingService;
@@ -46,10 +46,10 @@ class UpgradeListener implements ServerHandshakeListener {
 
     @Override
     public void onSuccess(WebSocketConnection webSocketConnection) {
-        BObject webSocketCaller = WebSocketUtil.createAndPopulateWebSocketCaller(webSocketConnection, wsService,
-                connectionManager);
-        wsService.addWsService(webSocketConnection.getChannelId(), dispatchingService);
-        WebSocketResourceDispatcher.dispatchOnOpen(webSocketConnection, webSocketCaller, wsService);
+        WebSocketUtil.createAndPopulateWebSocketCaller(webSocketConnection, wsService, connectionManager,
+                dispatchingService);
+        WebSocketResourceDispatcher.dispatchOnOpen(
+                connectionManager.getConnectionInfo(webSocketConnection.getChannelId()));
     }
 
     @Override
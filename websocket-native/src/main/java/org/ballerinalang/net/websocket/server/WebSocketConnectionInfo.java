@@ -18,13 +18,27 @@
 
 package org.ballerinalang.net.websocket.server;
 
+import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelPipeline;
 import org.ballerinalang.net.transport.contract.websocket.WebSocketConnection;
 import org.ballerinalang.net.websocket.WebSocketConstants;
+import org.ballerinalang.net.websocket.WebSocketDispatchTable;
+import org.ballerinalang.net.websocket.WebSocketResourceBinder;
 import org.ballerinalang.net.websocket.WebSocketService;
+import org.ballerinalang.net.websocket.WebSocketUtil;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class has WebSocket connection info for both the client and the server. Includes details
@@ -35,8 +49,28 @@ public class WebSocketConnectionInfo {
     private final WebSocketService webSocketService;
     private final BObject webSocketEndpoint;
     private final WebSocketConnection webSocketConnection;
+    private BObject dispatchingService;
+    private WebSocketDispatchTable dispatchTable;
     private StringAggregator stringAggregator = null;
     private ByteArrAggregator byteArrAggregator = null;
+    private long maxMessageSize = 0;
+    private long spillThreshold = 0;
+    private boolean fragmentDelivery = false;
+    private int maxBatchSize = 0;
+    private long batchLingerMicros = 0;
+    private MessageBatch textBatch = null;
+    private MessageBatch binaryBatch = null;
+    private boolean batchReadPending = false;
+    private DispatchWindow dispatchWindow = null;
+    private WritabilityHandler writabilityHandler = null;
+    private WebSocketConnectionManager connectionManager = null;
+    private int maxQueuedWrites = WebSocketConstants.DEFAULT_MAX_QUEUED_WRITES;
+    private QueuedWrites queuedWrites = null;
+    private boolean completeOnEventLoop = false;
+    private boolean closeSent = false;
+    private boolean fragmentedMessageInProgress = false;
+    private Queue<Runnable> heldDataWrites = null;
+    private final Set<String> groups = ConcurrentHashMap.newKeySet();
 
     /**
      * @param webSocketService    can be the WebSocketServerService or WebSocketService
@@ -48,12 +82,277 @@ public class WebSocketConnectionInfo {
         this.webSocketService = webSocketService;
         this.webSocketConnection = webSocketConnection;
         this.webSocketEndpoint = webSocketEndpoint;
+        this.dispatchingService = webSocketService.getBalService();
+        this.dispatchTable = webSocketService.getDispatchTable();
     }
 
     public WebSocketService getService() {
         return webSocketService;
     }
 
+    /**
+     * Binds the connection to the service returned by the upgrade resource and resolves its dispatch table, so
+     * that frames of the connection are dispatched without any further lookups.
+     *
+     * @param dispatchingService the service that handles the frames of this connection
+     */
+    public void setDispatchingService(BObject dispatchingService) {
+        this.dispatchingService = dispatchingService;
+        this.dispatchTable = WebSocketDispatchTable.getDispatchTable(dispatchingService);
+    }
+
+    public BObject getDispatchingService() {
+        return dispatchingService;
+    }
+
+    public WebSocketDispatchTable getDispatchTable() {
+        return dispatchTable;
+    }
+
+    /**
+     * Sets the size limits of the messages received over the connection. A limit less than or equal to zero
+     * disables the respective check.
+     *
+     * @param maxMessageSize the maximum size in bytes of an aggregated message
+     * @param spillThreshold the size in bytes above which a binary message is aggregated in a temporary file
+     */
+    public void setMessageSizeLimits(long maxMessageSize, long spillThreshold) {
+        this.maxMessageSize = maxMessageSize;
+        this.spillThreshold = spillThreshold;
+    }
+
+    public long getMaxMessageSize() {
+        return maxMessageSize;
+    }
+
+    /**
+     * Sets whether the fragments of text and binary messages are dispatched one by one as they arrive instead of
+     * being aggregated into a single message.
+     */
+    public void setFragmentDelivery(boolean fragmentDelivery) {
+        this.fragmentDelivery = fragmentDelivery;
+    }
+
+    public boolean isFragmentDelivery() {
+        return fragmentDelivery;
+    }
+
+    /**
+     * Sets how the messages dispatched to {@code onTextMessages} and {@code onBinaryMessages} are batched.
+     *
+     * @param maxBatchSize      the maximum number of messages of a batch
+     * @param batchLingerMicros the time in microseconds a partially filled batch waits for more messages
+     */
+    public void setBatchConfig(int maxBatchSize, long batchLingerMicros) {
+        this.maxBatchSize = maxBatchSize;
+        this.batchLingerMicros = batchLingerMicros;
+    }
+
+    public MessageBatch createIfNullAndGetTextBatch() {
+        if (textBatch == null) {
+            textBatch = new MessageBatch(maxBatchSize, batchLingerMicros);
+        }
+        return textBatch;
+    }
+
+    public MessageBatch createIfNullAndGetBinaryBatch() {
+        if (binaryBatch == null) {
+            binaryBatch = new MessageBatch(maxBatchSize, batchLingerMicros);
+        }
+        return binaryBatch;
+    }
+
+    /**
+     * Whether a frame has been requested on behalf of a batch and no batched message has arrived since. A batch
+     * dispatched by its linger timer leaves such a read behind, which must not be requested again when the batch
+     * completes.
+     */
+    public boolean isBatchReadPending() {
+        return batchReadPending;
+    }
+
+    public void setBatchReadPending(boolean batchReadPending) {
+        this.batchReadPending = batchReadPending;
+    }
+
+    /**
+     * Sets the number of messages of the connection which may be dispatched before the earlier ones have completed.
+     * A window of one keeps the connection to a single message in flight.
+     *
+     * @param size    the maximum number of messages in flight
+     * @param ordered whether the completions of the messages are applied in the order the messages arrived
+     */
+    public void setDispatchWindow(int size, boolean ordered) {
+        dispatchWindow = size > 1 ? new DispatchWindow(size, ordered) : null;
+    }
+
+    /**
+     * @return the dispatch window of the connection or null if only one message is dispatched at a time
+     */
+    public DispatchWindow getDispatchWindow() {
+        return dispatchWindow;
+    }
+
+    /**
+     * Sets whether the writes of the connection complete only once the connection is writable. When enabled, a
+     * handler which tracks the writability of the channel is added to the pipeline of the connection.
+     */
+    public void setWaitUntilWritable(boolean waitUntilWritable) {
+        if (!waitUntilWritable || webSocketConnection == null) {
+            writabilityHandler = null;
+            return;
+        }
+        ChannelPipeline pipeline = webSocketConnection.getChannel().pipeline();
+        writabilityHandler = (WritabilityHandler) pipeline.get(WebSocketConstants.WRITABILITY_HANDLER);
+        if (writabilityHandler == null) {
+            writabilityHandler = new WritabilityHandler();
+            pipeline.addFirst(WebSocketConstants.WRITABILITY_HANDLER, writabilityHandler);
+        }
+    }
+
+    /**
+     * Adds a {@link CloseFrameTracker} to the pipeline of the connection, which marks the connection as closed once a
+     * close frame has been written to it.
+     */
+    public void trackCloseFrames() {
+        if (webSocketConnection == null) {
+            return;
+        }
+        ChannelPipeline pipeline = webSocketConnection.getChannel().pipeline();
+        if (pipeline.get(WebSocketConstants.CLOSE_FRAME_TRACKER) == null) {
+            WebSocketUtil.addAfterFrameEncoder(pipeline, WebSocketConstants.CLOSE_FRAME_TRACKER,
+                    new CloseFrameTracker(this));
+        }
+    }
+
+    /**
+     * Marks the connection as closed, after which no data frame may be written to it. This is called from the event
+     * loop of the connection.
+     */
+    public void setCloseSent() {
+        closeSent = true;
+        endFragmentedMessage();
+    }
+
+    /**
+     * Checks whether a close frame has been written to the connection or the connection has become inactive. This
+     * must be called from the event loop of the connection.
+     */
+    public boolean isCloseSent() {
+        return closeSent;
+    }
+
+    /**
+     * Runs the write of a complete data message, or holds it back while a fragmented message is being written to the
+     * connection, so that the frames of the two messages are not interleaved. Held writes are run in order once the
+     * fragmented message ends or the connection is closed. This must be called from the event loop of the connection.
+     *
+     * @param write the write of the message
+     */
+    public void runDataWrite(Runnable write) {
+        if (!fragmentedMessageInProgress || closeSent) {
+            write.run();
+            return;
+        }
+        if (heldDataWrites == null) {
+            heldDataWrites = new ArrayDeque<>();
+        }
+        heldDataWrites.add(write);
+    }
+
+    /**
+     * Runs the write of a chunk of a fragmented message. The chunk which starts the message waits like the write of
+     * any other message and then marks the fragmented message as in progress, while the chunks which follow it are
+     * written right away. This must be called from the event loop of the connection.
+     *
+     * @param first whether the chunk starts the message
+     * @param write the write of the chunk
+     */
+    public void runFragmentWrite(boolean first, Runnable write) {
+        if (!first) {
+            write.run();
+            return;
+        }
+        runDataWrite(() -> {
+            fragmentedMessageInProgress = true;
+            write.run();
+        });
+    }
+
+    /**
+     * Ends the fragmented message of the connection and runs the data writes held back by it, up to the next
+     * fragmented message among them. This must be called from the event loop of the connection.
+     */
+    public void endFragmentedMessage() {
+        fragmentedMessageInProgress = false;
+        Runnable write;
+        while (heldDataWrites != null && (!fragmentedMessageInProgress || closeSent)
+                && (write = heldDataWrites.poll()) != null) {
+            write.run();
+        }
+    }
+
+    /**
+     * Runs the completion of a write. If the connection waits until it is writable, the completion is held back
+     * while the outbound buffer of the connection is above the high water mark.
+     *
+     * @param completion the completion of the write
+     */
+    public void completeWhenWritable(Runnable completion) {
+        if (writabilityHandler == null) {
+            completion.run();
+        } else {
+            writabilityHandler.runWhenWritable(webSocketConnection.getChannel(), completion);
+        }
+    }
+
+    /**
+     * Sets the maximum number of writes of the connection which may be queued without waiting for their completion.
+     */
+    public void setMaxQueuedWrites(int maxQueuedWrites) {
+        this.maxQueuedWrites = maxQueuedWrites;
+    }
+
+    /**
+     * Sets whether the invocations of the remote functions of the connection are completed on its event loop.
+     */
+    public void setCompleteOnEventLoop(boolean completeOnEventLoop) {
+        this.completeOnEventLoop = completeOnEventLoop;
+    }
+
+    public boolean isCompleteOnEventLoop() {
+        return completeOnEventLoop;
+    }
+
+    public synchronized QueuedWrites createIfNullAndGetQueuedWrites() {
+        if (queuedWrites == null) {
+            queuedWrites = new QueuedWrites(maxQueuedWrites);
+        }
+        return queuedWrites;
+    }
+
+    /**
+     * Sets the connection manager of the listener the connection was accepted by, which holds the groups the
+     * connection can join.
+     */
+    public void setConnectionManager(WebSocketConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    /**
+     * @return the connection manager of the listener or null if the connection is a client connection
+     */
+    public WebSocketConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * @return the names of the groups the connection has joined
+     */
+    Set<String> getGroups() {
+        return groups;
+    }
+
     public BObject getWebSocketEndpoint() {
         return webSocketEndpoint;
     }
@@ -68,65 +367,223 @@ public class WebSocketConnectionInfo {
 
     public StringAggregator createIfNullAndGetStringAggregator() {
         if (stringAggregator == null) {
-            stringAggregator = new StringAggregator();
+            stringAggregator = new StringAggregator(maxMessageSize);
         }
         return stringAggregator;
     }
 
     public ByteArrAggregator createIfNullAndGetByteArrAggregator() {
         if (byteArrAggregator == null) {
-            byteArrAggregator = new ByteArrAggregator();
+            // Spilling only applies when onBinaryMessage can take the file-backed record instead of a byte array
+            WebSocketResourceBinder onBinaryMessage = dispatchTable.getOnBinaryMessage();
+            boolean spillable = onBinaryMessage != null && onBinaryMessage.isSpilledPayloadAccepted();
+            byteArrAggregator = new ByteArrAggregator(maxMessageSize, spillable ? spillThreshold : 0);
         }
         return byteArrAggregator;
     }
 
+    /**
+     * Releases the buffers held for a partially received message and the messages waiting in a batch. Called when
+     * the connection is closed or fails so that the fragments of an incomplete message are not retained.
+     */
+    public void releaseAggregators() {
+        if (byteArrAggregator != null) {
+            byteArrAggregator.resetAggregateByteArr();
+        }
+        if (stringAggregator != null) {
+            stringAggregator.resetAggregateString();
+        }
+        if (textBatch != null) {
+            textBatch.release();
+        }
+        if (binaryBatch != null) {
+            binaryBatch.release();
+        }
+    }
+
     /**
      * A string aggregator to handle string aggregation for data binding during onTextMessage resource dispatching. The
      * aggregation is done in the ConnectionInfo class because the strings specific to a particular connection needs to
-     * be aggregated.
+     * be aggregated. A message of a single frame is passed through without touching the builder, and the builder is
+     * reused across the fragmented messages of the connection. The fragments arrive already decoded by the transport,
+     * which decodes each text frame to a String, so the aggregator works on those Strings and not on the frame bytes.
      */
     public static class StringAggregator {
-        private StringAggregator() {
+        // Builders grown beyond this capacity by a large message are dropped instead of being kept for the connection
+        private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+        private final long maxMessageSize;
 
+        StringAggregator(long maxMessageSize) {
+            this.maxMessageSize = maxMessageSize;
         }
 
-        private StringBuilder aggregateStrBuilder = new StringBuilder();
+        private String firstFragment = null;
+        private StringBuilder aggregateStrBuilder = null;
+        private long aggregateSize = 0;
 
-        public String getAggregateString() {
-            return aggregateStrBuilder.toString();
+        public BString getAggregateString() {
+            if (aggregateStrBuilder == null || aggregateStrBuilder.length() == 0) {
+                return StringUtils.fromString(firstFragment == null ? "" : firstFragment);
+            }
+            return StringUtils.fromString(aggregateStrBuilder.toString());
         }
 
         public void appendAggregateString(String aggregateString) {
-            aggregateStrBuilder.append(aggregateString);
+            if (maxMessageSize > 0) {
+                aggregateSize += ByteBufUtil.utf8Bytes(aggregateString);
+            }
+            if (aggregateStrBuilder != null && aggregateStrBuilder.length() > 0) {
+                aggregateStrBuilder.append(aggregateString);
+            } else if (firstFragment == null) {
+                firstFragment = aggregateString;
+            } else {
+                if (aggregateStrBuilder == null) {
+                    aggregateStrBuilder = new StringBuilder(firstFragment.length() + aggregateString.length());
+                }
+                aggregateStrBuilder.append(firstFragment).append(aggregateString);
+                firstFragment = null;
+            }
+        }
+
+        /**
+         * Checks whether the UTF-8 encoded size of the fragments received so far is above the maximum message size.
+         */
+        public boolean isMaxMessageSizeExceeded() {
+            return maxMessageSize > 0 && aggregateSize > maxMessageSize;
         }
 
         public void resetAggregateString() {
-            aggregateStrBuilder = new StringBuilder();
+            firstFragment = null;
+            aggregateSize = 0;
+            if (aggregateStrBuilder != null) {
+                if (aggregateStrBuilder.capacity() > MAX_RETAINED_CAPACITY) {
+                    aggregateStrBuilder = null;
+                } else {
+                    aggregateStrBuilder.setLength(0);
+                }
+            }
         }
     }
 
     /**
      * A byte array aggregator to handle byte array aggregation until the final frame is received. The aggregation
      * is done in the ConnectionInfo class because the byte arrays specific to a particular connection needs to
-     * be aggregated.
+     * be aggregated. The frame buffers are retained as components of a composite buffer and copied once into an
+     * exact-size array when the message is complete. A message of a single frame is not copied at all when the frame
+     * buffer is backed by an array of the same size. Once the message grows beyond the spill threshold, the
+     * fragments are moved into a {@link SpillFile} and the rest of the message is written there.
      */
     public static class ByteArrAggregator {
-        private ByteArrAggregator() {
+        private final long maxMessageSize;
+        private final long spillThreshold;
 
+        private ByteArrAggregator(long maxMessageSize, long spillThreshold) {
+            this.maxMessageSize = maxMessageSize;
+            this.spillThreshold = spillThreshold;
         }
 
-        private ByteArrayOutputStream aggregateArr = new ByteArrayOutputStream();
+        private ByteBuffer firstFragment = null;
+        private CompositeByteBuf aggregateBuf = null;
+        private SpillFile spillFile = null;
+        private long aggregateSize = 0;
 
         public byte[] getAggregateByteArr() {
-            return aggregateArr.toByteArray();
+            if (aggregateBuf == null) {
+                return firstFragment == null ? new byte[0] : toByteArray(firstFragment);
+            }
+            byte[] aggregateArr = new byte[aggregateBuf.readableBytes()];
+            aggregateBuf.getBytes(aggregateBuf.readerIndex(), aggregateArr);
+            return aggregateArr;
+        }
+
+        public void appendAggregateArr(ByteBuffer fragment) throws IOException {
+            aggregateSize += fragment.remaining();
+            if (isMaxMessageSizeExceeded()) {
+                return;
+            }
+            if (spillFile != null) {
+                spillFile.write(fragment);
+                return;
+            }
+            if (aggregateBuf != null) {
+                aggregateBuf.addComponent(true, Unpooled.wrappedBuffer(fragment));
+            } else if (firstFragment == null) {
+                firstFragment = fragment;
+            } else {
+                // Components are never consolidated, as that would copy the fragments received so far
+                aggregateBuf = ByteBufAllocator.DEFAULT.compositeBuffer(Integer.MAX_VALUE);
+                aggregateBuf.addComponent(true, Unpooled.wrappedBuffer(firstFragment));
+                aggregateBuf.addComponent(true, Unpooled.wrappedBuffer(fragment));
+                firstFragment = null;
+            }
+            if (spillThreshold > 0 && aggregateSize > spillThreshold) {
+                spill();
+            }
         }
 
-        public void appendAggregateArr(byte[] aggregateByteArr) throws IOException {
-            this.aggregateArr.write(aggregateByteArr);
+        private void spill() throws IOException {
+            spillFile = SpillFile.create();
+            if (firstFragment != null) {
+                spillFile.write(firstFragment);
+                firstFragment = null;
+            } else {
+                for (ByteBuffer component : aggregateBuf.nioBuffers()) {
+                    spillFile.write(component);
+                }
+                aggregateBuf.release();
+                aggregateBuf = null;
+            }
+        }
+
+        /**
+         * Checks whether the size of the fragments received so far is above the maximum message size.
+         */
+        public boolean isMaxMessageSizeExceeded() {
+            return maxMessageSize > 0 && aggregateSize > maxMessageSize;
+        }
+
+        public boolean isSpilled() {
+            return spillFile != null;
+        }
+
+        /**
+         * Completes the spill file of the aggregated message and hands over its ownership to the caller, who is
+         * responsible for deleting it once the message has been consumed.
+         */
+        public SpillFile takeSpillFile() throws IOException {
+            SpillFile completed = spillFile;
+            spillFile = null;
+            try {
+                completed.finish();
+            } catch (IOException e) {
+                completed.delete();
+                throw e;
+            }
+            return completed;
         }
 
         public void resetAggregateByteArr() {
-            this.aggregateArr = new ByteArrayOutputStream();
+            firstFragment = null;
+            aggregateSize = 0;
+            if (aggregateBuf != null) {
+                aggregateBuf.release();
+                aggregateBuf = null;
+            }
+            if (spillFile != null) {
+                spillFile.delete();
+                spillFile = null;
+            }
+        }
+
+        private static byte[] toByteArray(ByteBuffer buffer) {
+            if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                    && buffer.remaining() == buffer.array().length) {
+                return buffer.array();
+            }
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return bytes;
         }
     }
 }
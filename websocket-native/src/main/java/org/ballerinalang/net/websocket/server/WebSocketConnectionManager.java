@@ -18,16 +18,25 @@
 
 package org.ballerinalang.net.websocket.server;
 
+import org.ballerinalang.net.websocket.WebSocketConstants;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Maintains a map of connectionId and ConnectionInfo objects of a successfully established connection.
+ * Maintains a map of connectionId and ConnectionInfo objects of a successfully established connection. It also keeps
+ * the groups the connections have joined, so that a message can be published to all the members of a group. The
+ * members of a group are held in a concurrent set, which is iterated without blocking the connections that join or
+ * leave the group in the meantime.
  */
 public class WebSocketConnectionManager {
 
     private final Map<String, WebSocketConnectionInfo> wsConnectionsMap = new ConcurrentHashMap<>();
+    private final Map<String, Set<WebSocketConnectionInfo>> groups = new ConcurrentHashMap<>();
 
     public WebSocketConnectionInfo getConnectionInfo(String connectionID) {
         return wsConnectionsMap.get(connectionID);
@@ -37,7 +46,77 @@ public class WebSocketConnectionManager {
         wsConnectionsMap.put(connectionID, wsConnection);
     }
 
+    /**
+     * Removes the connection along with its memberships of groups.
+     */
     public WebSocketConnectionInfo removeConnectionInfo(String connectionID) {
-        return wsConnectionsMap.remove(connectionID);
+        WebSocketConnectionInfo connectionInfo = wsConnectionsMap.remove(connectionID);
+        if (connectionInfo != null) {
+            leaveAllGroups(connectionInfo);
+        }
+        return connectionInfo;
+    }
+
+    /**
+     * Adds the connection to the group. The group is recorded on the connection before the connection is added to
+     * the group, and the connection is checked to still be registered afterwards, so that a join which races with
+     * the removal of the connection is either undone by the removal or undone here.
+     *
+     * @return false if the connection has been removed, in which case it is not a member of the group
+     */
+    public boolean joinGroup(String group, WebSocketConnectionInfo connectionInfo) {
+        connectionInfo.getGroups().add(group);
+        groups.compute(group, (name, members) -> {
+            Set<WebSocketConnectionInfo> groupMembers = members != null ? members : ConcurrentHashMap.newKeySet();
+            groupMembers.add(connectionInfo);
+            return groupMembers;
+        });
+        if (isRegistered(connectionInfo)) {
+            return true;
+        }
+        leaveGroup(group, connectionInfo);
+        return false;
+    }
+
+    private boolean isRegistered(WebSocketConnectionInfo connectionInfo) {
+        String connectionId = connectionInfo.getWebSocketEndpoint()
+                .getStringValue(WebSocketConstants.LISTENER_ID_FIELD).getValue();
+        return wsConnectionsMap.get(connectionId) == connectionInfo;
+    }
+
+    /**
+     * Removes the connection from the group. The group itself is removed once its last member leaves.
+     */
+    public void leaveGroup(String group, WebSocketConnectionInfo connectionInfo) {
+        connectionInfo.getGroups().remove(group);
+        groups.computeIfPresent(group, (name, members) -> {
+            members.remove(connectionInfo);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    public void leaveAllGroups(WebSocketConnectionInfo connectionInfo) {
+        for (String group : connectionInfo.getGroups()) {
+            leaveGroup(group, connectionInfo);
+        }
+    }
+
+    public int getConnectionCount() {
+        return wsConnectionsMap.size();
+    }
+
+    /**
+     * @return the number of groups which have at least one member
+     */
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    /**
+     * @return a snapshot of the members of the group, which is empty if no connection has joined the group
+     */
+    public List<WebSocketConnectionInfo> getGroupMembers(String group) {
+        Set<WebSocketConnectionInfo> members = groups.get(group);
+        return members != null ? new ArrayList<>(members) : Collections.emptyList();
     }
 }
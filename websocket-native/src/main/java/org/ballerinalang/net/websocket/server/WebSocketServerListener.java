@@ -55,9 +55,10 @@ public class WebSocketServerListener implements WebSocketConnectorListener {
     private final WebSocketConnectionManager connectionManager;
     private final BMap httpEndpointConfig;
 
-    public WebSocketServerListener(WebSocketServicesRegistry servicesRegistry, BMap httpEndpointConfig) {
+    public WebSocketServerListener(WebSocketServicesRegistry servicesRegistry, BMap httpEndpointConfig,
+            WebSocketConnectionManager connectionManager) {
         this.servicesRegistry = servicesRegistry;
-        this.connectionManager = new WebSocketConnectionManager();
+        this.connectionManager = connectionManager;
         this.httpEndpointConfig = httpEndpointConfig;
     }
 
@@ -134,8 +135,10 @@ public class WebSocketServerListener implements WebSocketConnectorListener {
     public void onClose(WebSocketConnection webSocketConnection) {
         WebSocketObservabilityUtil.observeClose(getConnectionInfo(webSocketConnection));
         try {
-            WebSocketUtil.setListenerOpenField(
-                    connectionManager.removeConnectionInfo(webSocketConnection.getChannelId()));
+            WebSocketConnectionInfo connectionInfo =
+                    connectionManager.removeConnectionInfo(webSocketConnection.getChannelId());
+            connectionInfo.releaseAggregators();
+            WebSocketUtil.setListenerOpenField(connectionInfo);
         } catch (IllegalAccessException e) {
             // Ignore as it is not possible have an Illegal access
         }
@@ -143,7 +146,9 @@ public class WebSocketServerListener implements WebSocketConnectorListener {
 
     @Override
     public void onError(WebSocketConnection webSocketConnection, Throwable throwable) {
-        WebSocketResourceDispatcher.dispatchOnError(getConnectionInfo(webSocketConnection), throwable, true);
+        WebSocketConnectionInfo connectionInfo = getConnectionInfo(webSocketConnection);
+        connectionInfo.releaseAggregators();
+        WebSocketResourceDispatcher.dispatchOnError(connectionInfo, throwable, true);
     }
 
     @Override
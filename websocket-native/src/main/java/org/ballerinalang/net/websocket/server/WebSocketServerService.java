@@ -20,14 +20,17 @@ package org.ballerinalang.net.websocket.server;
 
 import io.ballerina.runtime.api.Runtime;
 import io.ballerina.runtime.api.types.MethodType;
+import io.ballerina.runtime.api.types.ServiceType;
 import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
+import io.netty.channel.WriteBufferWaterMark;
 import org.ballerinalang.net.http.HttpConstants;
 import org.ballerinalang.net.http.HttpUtil;
 import org.ballerinalang.net.websocket.ModuleUtils;
 import org.ballerinalang.net.websocket.WebSocketConstants;
+import org.ballerinalang.net.websocket.WebSocketResourceBinder;
 import org.ballerinalang.net.websocket.WebSocketService;
 import org.ballerinalang.net.websocket.WebSocketUtil;
 
@@ -41,10 +44,26 @@ public class WebSocketServerService extends WebSocketService {
     private String basePath;
     private int maxFrameSize = WebSocketConstants.DEFAULT_MAX_FRAME_SIZE;
     private int idleTimeoutInSeconds = 0;
+    private long maxMessageSize = 0;
+    private long spillThreshold = 0;
+    private boolean fragmentDelivery = false;
+    private int maxBatchSize = WebSocketConstants.DEFAULT_MAX_BATCH_SIZE;
+    private long batchLingerMicros = 0;
+    private int dispatchWindow = 1;
+    private boolean orderedDispatch = true;
+    private int maxUnflushedWrites = 0;
+    private WriteBufferWaterMark writeBufferWaterMark = null;
+    private boolean waitUntilWritable = false;
+    private int maxQueuedWrites = WebSocketConstants.DEFAULT_MAX_QUEUED_WRITES;
+    private int outboundDataWindow = 0;
+    private boolean completeOnEventLoop = false;
+    private final WebSocketResourceBinder upgradeResource;
 
     public WebSocketServerService(BObject service, Runtime runtime, String basePath) {
         super(service, runtime);
         populateConfigs(basePath);
+        upgradeResource = WebSocketResourceBinder.forUpgrade(
+                ((ServiceType) service.getType()).getResourceMethods()[0]);
     }
 
     private void populateConfigs(String basePath) {
@@ -54,6 +73,25 @@ public class WebSocketServerService extends WebSocketService {
             idleTimeoutInSeconds = WebSocketUtil.findTimeoutInSeconds(configAnnotation,
                     WebSocketConstants.ANNOTATION_ATTR_IDLE_TIMEOUT, 0);
             maxFrameSize = WebSocketUtil.findMaxFrameSize(configAnnotation);
+            maxMessageSize = WebSocketUtil.findMessageSizeLimit(configAnnotation,
+                    WebSocketConstants.ANNOTATION_ATTR_MAX_MESSAGE_SIZE);
+            spillThreshold = WebSocketUtil.findMessageSizeLimit(configAnnotation,
+                    WebSocketConstants.ANNOTATION_ATTR_SPILL_THRESHOLD);
+            fragmentDelivery = configAnnotation.getBooleanValue(WebSocketConstants.ANNOTATION_ATTR_DELIVER_FRAGMENTS);
+            maxBatchSize = WebSocketUtil.findMaxBatchSize(configAnnotation);
+            batchLingerMicros = WebSocketUtil.findTimeoutInMicros(configAnnotation,
+                    WebSocketConstants.ANNOTATION_ATTR_BATCH_LINGER);
+            dispatchWindow = (int) Math.min(Math.max(configAnnotation.getIntValue(
+                    WebSocketConstants.ANNOTATION_ATTR_DISPATCH_WINDOW), 1), Integer.MAX_VALUE);
+            orderedDispatch = configAnnotation.getBooleanValue(WebSocketConstants.ANNOTATION_ATTR_ORDERED_DISPATCH);
+            maxUnflushedWrites = WebSocketUtil.findMaxUnflushedWrites(configAnnotation);
+            writeBufferWaterMark = WebSocketUtil.findWriteBufferWaterMark(configAnnotation);
+            waitUntilWritable = configAnnotation.getBooleanValue(
+                    WebSocketConstants.ANNOTATION_ATTR_WAIT_UNTIL_WRITABLE);
+            maxQueuedWrites = WebSocketUtil.findMaxQueuedWrites(configAnnotation);
+            outboundDataWindow = WebSocketUtil.findOutboundDataWindow(configAnnotation);
+            completeOnEventLoop = configAnnotation.getBooleanValue(
+                    WebSocketConstants.ANNOTATION_ATTR_COMPLETE_ON_EVENT_LOOP);
         }
         service.addNativeData(WebSocketConstants.ANNOTATION_ATTR_MAX_FRAME_SIZE.toString(), maxFrameSize);
         // This will be overridden if there is an upgrade path
@@ -92,6 +130,10 @@ public class WebSocketServerService extends WebSocketService {
         return false;
     }
 
+    public WebSocketResourceBinder getUpgradeResource() {
+        return upgradeResource;
+    }
+
     public int getIdleTimeoutInSeconds() {
         return idleTimeoutInSeconds;
     }
@@ -100,6 +142,61 @@ public class WebSocketServerService extends WebSocketService {
         return maxFrameSize;
     }
 
+    public long getMaxMessageSize() {
+        return maxMessageSize;
+    }
+
+    public long getSpillThreshold() {
+        return spillThreshold;
+    }
+
+    public boolean isFragmentDelivery() {
+        return fragmentDelivery;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getBatchLingerMicros() {
+        return batchLingerMicros;
+    }
+
+    public int getDispatchWindow() {
+        return dispatchWindow;
+    }
+
+    public boolean isOrderedDispatch() {
+        return orderedDispatch;
+    }
+
+    public int getMaxUnflushedWrites() {
+        return maxUnflushedWrites;
+    }
+
+    /**
+     * @return the write buffer water marks of the connections or null if the defaults of the channel apply
+     */
+    public WriteBufferWaterMark getWriteBufferWaterMark() {
+        return writeBufferWaterMark;
+    }
+
+    public boolean isWaitUntilWritable() {
+        return waitUntilWritable;
+    }
+
+    public int getMaxQueuedWrites() {
+        return maxQueuedWrites;
+    }
+
+    public int getOutboundDataWindow() {
+        return outboundDataWindow;
+    }
+
+    public boolean isCompleteOnEventLoop() {
+        return completeOnEventLoop;
+    }
+
     public void setBasePathToServiceObj(String basePath) {
         service.addNativeData(WebSocketConstants.NATIVE_DATA_BASE_PATH, basePath);
         this.basePath = basePath;
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.websocket.server;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Holds back the completions of the writes of a connection while its outbound buffer is above the high water mark,
+ * and runs them once the buffer drains below the low water mark. The completions are also run when the connection
+ * becomes inactive, so that no write is left waiting on a connection which will never become writable. The pending
+ * completions are only accessed from the event loop of the connection.
+ */
+public class WritabilityHandler extends ChannelInboundHandlerAdapter {
+
+    private final Queue<Runnable> pendingCompletions = new ArrayDeque<>();
+
+    /**
+     * Runs the completion right away if the channel is writable, or once it becomes writable otherwise.
+     *
+     * @param channel    the channel of the connection
+     * @param completion the completion of a write
+     */
+    public void runWhenWritable(Channel channel, Runnable completion) {
+        if (!channel.eventLoop().inEventLoop()) {
+            channel.eventLoop().execute(() -> runWhenWritable(channel, completion));
+            return;
+        }
+        if (pendingCompletions.isEmpty() && (channel.isWritable() || !channel.isActive())) {
+            completion.run();
+        } else {
+            pendingCompletions.add(completion);
+        }
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            runPendingCompletions();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        runPendingCompletions();
+        ctx.fireChannelInactive();
+    }
+
+    private void runPendingCompletions() {
+        Runnable completion;
+        while ((completion = pendingCompletions.poll()) != null) {
+            completion.run();
+        }
+    }
+}
@@ -20,10 +20,12 @@ package org.ballerinalang.net.websocket.serviceendpoint;
 
 import io.ballerina.runtime.api.values.BObject;
 import org.ballerinalang.net.transport.contract.ServerConnector;
+import org.ballerinalang.net.websocket.server.WebSocketConnectionManager;
 import org.ballerinalang.net.websocket.server.WebSocketServicesRegistry;
 
 import static org.ballerinalang.net.websocket.WebSocketConstants.CONNECTOR_STARTED;
 import static org.ballerinalang.net.websocket.WebSocketConstants.HTTP_SERVER_CONNECTOR;
+import static org.ballerinalang.net.websocket.WebSocketConstants.WS_CONNECTION_MANAGER;
 import static org.ballerinalang.net.websocket.WebSocketConstants.WS_SERVICE_REGISTRY;
 
 /**
@@ -34,6 +36,10 @@ public class AbstractWebsocketNativeFunction {
         return (WebSocketServicesRegistry) serviceEndpoint.getNativeData(WS_SERVICE_REGISTRY);
     }
 
+    protected static WebSocketConnectionManager getConnectionManager(BObject serviceEndpoint) {
+        return (WebSocketConnectionManager) serviceEndpoint.getNativeData(WS_CONNECTION_MANAGER);
+    }
+
     static boolean isConnectorStarted(BObject serviceEndpoint) {
         return serviceEndpoint.getNativeData(CONNECTOR_STARTED) != null && (Boolean) serviceEndpoint
                 .getNativeData(CONNECTOR_STARTED);
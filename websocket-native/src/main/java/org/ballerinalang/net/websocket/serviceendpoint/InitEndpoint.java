@@ -33,6 +33,7 @@ import org.ballerinalang.net.transport.contract.config.ListenerConfiguration;
 import org.ballerinalang.net.transport.contract.config.Parameter;
 import org.ballerinalang.net.websocket.WebSocketConstants;
 import org.ballerinalang.net.websocket.WebSocketUtil;
+import org.ballerinalang.net.websocket.server.WebSocketConnectionManager;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -89,6 +90,7 @@ public class InitEndpoint extends AbstractWebsocketNativeFunction {
 
             //Adding service registries to native data
             resetRegistry(serviceEndpoint);
+            serviceEndpoint.addNativeData(WebSocketConstants.WS_CONNECTION_MANAGER, new WebSocketConnectionManager());
             return null;
         } catch (BError errorValue) {
             return errorValue;
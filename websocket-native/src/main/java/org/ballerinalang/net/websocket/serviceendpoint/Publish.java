@@ -0,0 +1,45 @@
+/*
+ *  Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinalang.net.websocket.serviceendpoint;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import org.ballerinalang.net.websocket.actions.websocketconnector.WebSocketConnector;
+import org.ballerinalang.net.websocket.observability.WebSocketObservabilityConstants;
+
+/**
+ * Publishes a message to the connections of the Websocket listener which have joined a group.
+ */
+public class Publish extends AbstractWebsocketNativeFunction {
+    public static Object publishTextMessage(Environment env, BObject listener, BString group, BString text) {
+        return WebSocketConnector.broadcast(env, getConnectionManager(listener).getGroupMembers(group.getValue()),
+                Unpooled.copiedBuffer(text.getValue(), CharsetUtil.UTF_8), true,
+                WebSocketObservabilityConstants.MESSAGE_TYPE_TEXT);
+    }
+
+    public static Object publishBinaryMessage(Environment env, BObject listener, BString group, BArray binaryData) {
+        return WebSocketConnector.broadcast(env, getConnectionManager(listener).getGroupMembers(group.getValue()),
+                Unpooled.wrappedBuffer(binaryData.getBytes()), false,
+                WebSocketObservabilityConstants.MESSAGE_TYPE_BINARY);
+    }
+}
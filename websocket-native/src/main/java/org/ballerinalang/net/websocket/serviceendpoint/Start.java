@@ -46,7 +46,7 @@ public class Start extends AbstractWebsocketNativeFunction {
         ServerConnectorFuture serverConnectorFuture = serverConnector.start();
         WebSocketServerListener wsListener =
                 new WebSocketServerListener(getWebSocketServicesRegistry(serviceEndpoint),
-                        serviceEndpoint.getMapValue(SERVICE_ENDPOINT_CONFIG));
+                        serviceEndpoint.getMapValue(SERVICE_ENDPOINT_CONFIG), getConnectionManager(serviceEndpoint));
         WebSocketConnectorPortBindingListener portBindingListener = new WebSocketConnectorPortBindingListener();
         serverConnectorFuture.setWebSocketConnectorListener(wsListener);
         serverConnectorFuture.setPortBindingEventListener(portBindingListener);